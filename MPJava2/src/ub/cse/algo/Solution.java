@@ -14,6 +14,8 @@ public class Solution{
 
     private ArrayList<Integer> bandwidths;
 
+    private ClientIndex clientIndex;
+
 
     /**
 
@@ -35,6 +37,8 @@ public class Solution{
 
         this.bandwidths = info.bandwidths;
 
+        this.clientIndex = info.clientIndex();                                     // checked against the client list once, not per node
+
     }
 
 
@@ -136,19 +140,9 @@ public class Solution{
 
     private NetworkNode createNode(int id, int maxPathLength, int clientsOnPath) {
 
-        Client client = null;
-
-        for (Client c : this.clients) {
-
-            if (c.id == id) {
-
-                client = c;
-
-                break;
-
-            }
+        int slot = this.clientIndex.slot(id);                                      // look the client up by node ID instead of scanning every client
 
-        }
+        Client client = slot < 0 ? null : this.clients.get(slot);
 
 
         int bandwidth = this.bandwidths.get(id);
@@ -221,154 +215,6 @@ public class Solution{
     }
 
 
-    private ArrayList<Integer> getTargetPath(HashMap<NetworkNode, ArrayList<NetworkNode>> graph, NetworkNode provider, NetworkNode target, HashMap<Integer, HashMap<NetworkNode, Integer>> consumedBandwidth) {
-
-        HashMap<NetworkNode, NetworkNode> edgeTo = new HashMap<>();
-
-        Deque<NetworkNode> queue = new LinkedList<>();
-
-        queue.add(provider);
-
-
-        int depth = 0;
-
-        NetworkNode last = provider;
-
-        ArrayList<NetworkNode> incremented = new ArrayList<>();
-
-        while (!edgeTo.containsKey(target) && !queue.isEmpty()) {
-
-            NetworkNode curr = queue.poll();
-
-
-            for (NetworkNode adj : graph.get(curr)) {
-
-                if (!edgeTo.containsKey(adj)) {
-
-//                    if (adj.getConsumedBandwidth(depth) >= adj.getBandwidth() && adj == target) {
-
-//                        int len = 0;
-
-//                        int throttled = 0;
-
-//                        NetworkNode prelim = curr;
-
-//                        while (!prelim.isProvider()) {
-
-//                            if (prelim.getConsumedBandwidth(depth) >= prelim.getBandwidth()) {
-
-//                                throttled += prelim.getConsumedBandwidth(depth) - prelim.getBandwidth();
-
-//                            }
-
-//
-
-//                            len++;
-
-//                            prelim = edgeTo.get(prelim);
-
-//                        }
-
-//
-
-//                        if (Double.compare((len + throttled) * adj.getClient().alpha, adj.getTolerance()) <= 0) {
-
-//                            edgeTo.put(adj, curr);
-
-//                            queue.add(adj);
-
-//                            adj.incConsumedBandwidth(depth);
-
-//                            incremented.add(adj);
-
-//                        }
-
-//                    } else {
-
-                    edgeTo.put(adj, curr);
-
-                    queue.add(adj);
-
-                    adj.incConsumedBandwidth(depth);
-
-                    incremented.add(adj);
-
-//                    }
-
-                }
-
-            }
-
-
-            if (curr == last && !queue.isEmpty()) {
-
-                depth++;
-
-                last = queue.peekLast();
-
-            }
-
-        }
-
-
-        NetworkNode node = target;
-
-        ArrayList<NetworkNode> nodePath = new ArrayList<>();
-
-        nodePath.add(node);
-
-        ArrayList<Integer> idPath = new ArrayList<>();
-
-        idPath.add(0, node.getClient().id);
-
-
-        if (!edgeTo.containsKey(target)) {
-
-            return new ArrayList<>();
-
-        } else {
-
-            while (!node.isProvider()) {
-
-                NetworkNode from = edgeTo.get(node);
-
-                nodePath.add(0, from);
-
-                idPath.add(0, from.getClient().id);
-
-                node = from;
-
-            }
-
-
-            depth = 0;
-
-            for (NetworkNode v : incremented) {
-
-                if (depth == 0) {
-
-                    depth++;
-
-                } else {
-
-                    if (!nodePath.contains(v)) {
-
-                        v.decConsumedBandwidth(depth);
-
-                    }
-
-                }
-
-            }
-
-        }
-
-
-        return idPath;
-
-    }
-
-
     /**
 
      * Method that returns the calculated
@@ -392,23 +238,19 @@ public class Solution{
 
         PriorityQueue<NetworkNode> ranking = getClientRanking(graph);
 
-        HashMap<Integer, HashMap<NetworkNode, Integer>> consumedBandwidth = new HashMap<>();
-
 
         while (!ranking.isEmpty()) {
 
             NetworkNode client = ranking.poll();
 
-            ArrayList<Integer> path = getTargetPath(graph, getProvider(graph), client, consumedBandwidth);
-
-//            sol.paths.put(client.getClient().id, path);
-
             sol.priorities.put(client.getClient().id, client.getClient().payment / (int)client.getTolerance() - client.getClientsOnPath());
 
         }
 
 
-        HashMap<Integer, ArrayList<Integer>> paths = Traversals.bfsPaths(this.graph, this.clients);
+        // Route in the ranking above, around the routers the earlier clients fill up
+
+        HashMap<Integer, ArrayList<Integer>> paths = new CongestionRouter(this.info, this.bandwidths).route(sol.priorities);
 
         for (Integer id : paths.keySet()) {
 
@@ -440,8 +282,6 @@ class NetworkNode implements Comparable<NetworkNode> {
 
     private final double tolerance;
 
-    private HashMap<Integer, Integer> consumedBandwidth;
-
 
     public NetworkNode(Client client, int bandwidth, Boolean isClient, Boolean isProvider, int maxLength, int clientsOnPath) {
 
@@ -459,8 +299,6 @@ class NetworkNode implements Comparable<NetworkNode> {
 
         this.tolerance = client.alpha * maxLength;
 
-        this.consumedBandwidth = new HashMap<>();
-
     }
 
 
@@ -513,27 +351,6 @@ class NetworkNode implements Comparable<NetworkNode> {
     }
 
 
-    public void incConsumedBandwidth(int depth) {
-
-        this.consumedBandwidth.put(depth, this.consumedBandwidth.getOrDefault(depth, 0) + 1);
-
-    }
-
-
-    public void decConsumedBandwidth(int depth) {
-
-        this.consumedBandwidth.put(depth, this.consumedBandwidth.getOrDefault(depth, 0) - 1);
-
-    }
-
-
-    public int getConsumedBandwidth(int depth) {
-
-        return this.consumedBandwidth.getOrDefault(depth, 0);
-
-    }
-
-
     @Override
 
     public int compareTo(NetworkNode b) {
@@ -1,16 +0,0 @@
-package ub.cse.algo;
-
-/**
- * This class handles all global variables such
- * as data indices in input files
- */
-public class Globals{
-  /* Used for file parsing */
-  static final int IS_CLIENT = 0;
-  static final int BANDWIDTHS = 1;
-  static final int ALPHAS = 2;
-  static final int PAYMENTS = 3;
-  static final int BETAS = 4;
-  static final int IS_FCC = 5;
-  static final int IS_RURAL = 6;
-}
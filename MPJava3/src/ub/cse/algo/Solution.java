@@ -30,31 +30,13 @@ public class Solution {
         SolutionObject sol = new SolutionObject();
 
         HashMap<Integer, ArrayList<Integer>> paths = Traversals.bfsPaths(this.graph, this.clients); // get all shortest paths
-        HashMap<Integer, HashMap<Integer, Integer>> bandUsage = new HashMap<>();                    // hashmap to track the used bandwidth of each node
 
         for (Client client : this.clients) {                                                        // iterate over every client
-            incBandwidth(paths.get(client.id), bandUsage);                                          // call helper function to track used node bandwidth
             sol.paths.put(client.id, paths.get(client.id));                                         // add the shortest path to the solution
         }
 
-        sol.bandwidths = this.bandwidths;
+        sol.bandwidths = new BandwidthPlanner(this.info).plan(sol, this.bandwidths);                // buy the cheapest bandwidth that pays off
 
         return sol;
     }
-
-    private void incBandwidth(ArrayList<Integer> path, HashMap<Integer, HashMap<Integer, Integer>> bandUsage) {
-        for (int i=1; i<path.size(); i++) {                                                         // iterate over every node in the path besides the provider
-            if (!bandUsage.containsKey(i)) {                                                        // add depth and node if the depth has not been tracked yet
-                bandUsage.put(i, new HashMap<>());
-                bandUsage.get(i).put(path.get(i), 1);
-            } else if (!bandUsage.get(i).containsKey(path.get(i))) {                                // add node to a depth if not already present
-                bandUsage.get(i).put(path.get(i), 1);
-            } else if (bandUsage.get(i).get(path.get(i)) < this.bandwidths.get(path.get(i))) {      // increment used bandwidth for nodes below their capacity
-                bandUsage.get(i).put(path.get(i), bandUsage.get(i).get(path.get(i)) + 1);
-            } else if (bandUsage.get(i).get(path.get(i)) >= this.bandwidths.get(path.get(i))) {     // increase the bandwidth for nodes at or above their capacity
-                bandUsage.get(i).put(path.get(i), bandUsage.get(i).get(path.get(i)) + 1);
-                this.bandwidths.set(path.get(i), bandUsage.get(i).get(path.get(i)));
-            }
-        }
-    }
 }
@@ -0,0 +1,27 @@
+package ub.cse.algo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning the bandwidth increments of the baseline solution's paths and priorities
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BandwidthPlannerBenchmark {
+
+    @Benchmark
+    public int[] plan(Testcase testcase) {
+        return new BandwidthPlanner(testcase.info).plan(testcase.compact, testcase.compact.bandwidths);
+    }
+}
@@ -0,0 +1,52 @@
+package ub.cse.algo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the network file, and the info file including the BFS for the shortest delays
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    /**
+     * A parser that already holds the testcase's graph, for parsing the info file alone
+     */
+    @State(Scope.Thread)
+    public static class Parser {
+        MPUtility mpu;
+        Graph graph;
+
+        @Setup
+        public void setUp(Testcase testcase) {
+            this.mpu = new MPUtility(Testcase.PROBLEM);
+            this.graph = this.mpu.readFile(testcase.filename);
+        }
+    }
+
+    @Benchmark
+    public Graph readFile(Testcase testcase) {
+        return new MPUtility(Testcase.PROBLEM).readFile(testcase.filename);
+    }
+
+    @Benchmark
+    public Info readInfo(Testcase testcase, Parser parser) {
+        // Make every call run its BFS instead of reusing the last one's distances
+        DistanceCache.invalidate(parser.graph.adjacency);
+        return parser.mpu.readInfo(testcase.filename + "-info");
+    }
+}
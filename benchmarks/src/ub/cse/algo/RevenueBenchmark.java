@@ -0,0 +1,32 @@
+package ub.cse.algo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring the baseline solution's delays with both penalties applied
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevenueBenchmark {
+
+    @Benchmark
+    public float revenue(Testcase testcase) {
+        return Revenue.revenue(testcase.info, testcase.solution, testcase.delays, true, true, false);
+    }
+
+    @Benchmark
+    public float revenueCompact(Testcase testcase) {
+        return Revenue.revenue(testcase.info, testcase.compact, testcase.compactDelays, true, true, false);
+    }
+}
@@ -0,0 +1,49 @@
+package ub.cse.algo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulating the baseline solution with the tick-by-tick and the event-driven simulator,
+ * and with the event-driven simulator under the other scheduling policies
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulatorBenchmark {
+
+    @Benchmark
+    public HashMap<Integer, Integer> simulator(Testcase testcase) {
+        return Simulator.run(testcase.info.graph, testcase.info.clients, testcase.solution);
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> eventSimulator(Testcase testcase) {
+        return EventSimulator.run(testcase.info.graph, testcase.info.clients, testcase.solution);
+    }
+
+    @Benchmark
+    public int[] eventSimulatorCompact(Testcase testcase) {
+        return EventSimulator.run(testcase.info.graph.adjacency, testcase.compact);
+    }
+
+    @Benchmark
+    public int[] earliestDeadline(Testcase testcase) {
+        return EventSimulator.run(testcase.info, testcase.compact, PacketScheduler.Policy.EARLIEST_DEADLINE);
+    }
+
+    @Benchmark
+    public int[] weightedFairShare(Testcase testcase) {
+        return EventSimulator.run(testcase.info, testcase.compact, PacketScheduler.Policy.WEIGHTED_FAIR_SHARE);
+    }
+}
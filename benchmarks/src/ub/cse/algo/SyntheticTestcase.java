@@ -0,0 +1,35 @@
+package ub.cse.algo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Synthetic problem 3 testcases for benchmarking at scale, written by
+ * TopologyGenerator as power law networks like the bundled ISP networks.
+ * Files are cached in the temp directory by size and reused by later runs
+ */
+class SyntheticTestcase {
+
+    /**
+     * @param nodes: number of nodes in the network
+     * @return the network file, the info file is next to it with "-info" appended
+     * @throws IOException if the files can not be written
+     */
+    static String create(int nodes) throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "mpjava-bench");
+        Files.createDirectories(dir);
+        File network = dir.resolve("power-law-" + nodes + ".txt").toFile();
+        if (network.isFile() && new File(network.getPath() + "-info").isFile()) {
+            return network.getPath();
+        }
+
+        TopologyGenerator generator = new TopologyGenerator();
+        generator.nodes = nodes;
+        generator.problem = Testcase.PROBLEM;
+        generator.write(network.getPath());
+        return network.getPath();
+    }
+}
@@ -0,0 +1,68 @@
+package ub.cse.algo;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A parsed testcase shared by the benchmarks, along with a baseline solution
+ * (BFS shortest paths, clients prioritized by payment, unchanged bandwidths)
+ * and its delays, so every phase can be measured on its own.
+ *
+ * "input1" is the bundled problem 3 testcase, a number is a synthetic
+ * network of that many nodes
+ */
+@State(Scope.Benchmark)
+public class Testcase {
+    // Problem 3 parses every column the revenue penalties use
+    static final int PROBLEM = 3;
+    private static final String BUNDLED = "MPJava3/testcases/input1.txt";
+
+    @Param({"input1", "10000", "100000", "1000000", "10000000"})
+    public String network;
+
+    // Network file, the info file is filename + "-info"
+    String filename;
+    Info info;
+    SolutionObject solution;
+    HashMap<Integer, Integer> delays;
+    CompactSolution compact;
+    int[] compactDelays;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.filename = this.network.equals("input1") ? bundled() : SyntheticTestcase.create(Integer.parseInt(this.network));
+
+        MPUtility mpu = new MPUtility(PROBLEM);
+        mpu.readFile(this.filename);
+        this.info = mpu.readInfo(this.filename + "-info");
+
+        HashMap<Integer, Integer> priorities = new HashMap<>();
+        for (Client client : this.info.clients) {
+            priorities.put(client.id, client.payment);
+        }
+        this.solution = new SolutionObject(Traversals.bfsPaths(this.info.graph, this.info.clients), priorities,
+                new ArrayList<>(this.info.bandwidths));
+        this.delays = EventSimulator.run(this.info.graph, this.info.clients, this.solution);
+        this.compact = CompactSolution.from(this.info.clients, this.solution);
+        this.compactDelays = CompactSolution.delaysBySlot(this.info.clients, this.delays);
+    }
+
+    /**
+     * @return the bundled testcase, looked up from the project root or a module directory
+     */
+    private static String bundled() throws IOException {
+        for (String candidate : new String[]{BUNDLED, "../" + BUNDLED}) {
+            if (new File(candidate).isFile()) {
+                return candidate;
+            }
+        }
+        throw new IOException("Can not find " + BUNDLED + ", run the benchmarks from the project root");
+    }
+}
@@ -0,0 +1,45 @@
+package ub.cse.algo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BFS for shortest distances with each strategy, and shortest paths to the clients.
+ * Traversals.bfs would answer from the DistanceCache, so the distances are found directly
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraversalBenchmark {
+
+    @Benchmark
+    public int[] bfs(Testcase testcase) {
+        return Traversals.distances(testcase.info.graph.adjacency, Traversals.Strategy.TOP_DOWN);
+    }
+
+    @Benchmark
+    public int[] bfsDirectionOptimizing(Testcase testcase) {
+        return Traversals.distances(testcase.info.graph.adjacency, Traversals.Strategy.DIRECTION_OPTIMIZING);
+    }
+
+    @Benchmark
+    public int[] bfsParallel(Testcase testcase) {
+        return Traversals.distances(testcase.info.graph.adjacency, Traversals.Strategy.PARALLEL);
+    }
+
+    @Benchmark
+    public HashMap<Integer, ArrayList<Integer>> bfsPaths(Testcase testcase) {
+        return Traversals.bfsPaths(testcase.info.graph, testcase.info.clients);
+    }
+}
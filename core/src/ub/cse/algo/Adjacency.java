@@ -0,0 +1,67 @@
+package ub.cse.algo;
+
+/**
+ * Read-only neighbor iteration surface shared by the in-memory CsrGraph
+ * and the memory-mapped MappedGraph. Neighbors are addressed by edge index:
+ *     for (long e = graph.edgeStart(node); e < graph.edgeEnd(node); ++e) {
+ *         int neighbor = graph.target(e);
+ *     }
+ */
+interface Adjacency {
+    /**
+     * @return the number of nodes in the network
+     */
+    int size();
+
+    /**
+     * @return the ID of the content provider
+     */
+    int contentProvider();
+
+    /**
+     * @return the number of (directed) adjacency entries in the network
+     */
+    long edgeCount();
+
+    /**
+     * @param node: node ID
+     * @return index of the node's first neighbor
+     */
+    long edgeStart(int node);
+
+    /**
+     * @param node: node ID
+     * @return index one past the node's last neighbor
+     */
+    long edgeEnd(int node);
+
+    /**
+     * @param edge: edge index
+     * @return the neighbor stored at that index
+     */
+    int target(long edge);
+
+    /**
+     * @param node: node ID
+     * @return the number of neighbors of the node
+     */
+    default int degree(int node) {
+        return (int) (edgeEnd(node) - edgeStart(node));
+    }
+
+    /**
+     * Checks if to is listed as a neighbor of from
+     *
+     * @param from: node whose neighbor list is searched
+     * @param to: node to look for
+     * @return true if the edge exists otherwise false
+     */
+    default boolean hasEdge(int from, int to) {
+        for (long e = edgeStart(from), end = edgeEnd(from); e < end; ++e) {
+            if (target(e) == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
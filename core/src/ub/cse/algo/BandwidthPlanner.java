@@ -0,0 +1,423 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.ReservationTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks the bandwidth increments for a solution whose paths and priorities
+ * are fixed, for problems 3 to 5 where every unit above a router's original
+ * bandwidth costs costBandwidth.
+ *
+ * Packets are planned in the order the simulator ranks them. A router
+ * forwards its best ranked packets first, so a packet only ever waits for the
+ * ones planned before it, and those are kept in a table of how many packets
+ * every router forwards on every tick, like CongestionRouter does. A packet
+ * that would arrive too late is given the cheapest increments that get it
+ * there in time: its departure from the i-th router of its path can only be
+ * one of the ticks between i + 1 and its deadline minus the hops left, and
+ * leaving on a tick costs raising the router to one more than the packets it
+ * forwards then. A pass over the hops with a running minimum finds the
+ * cheapest departures in O(hops * slack). The increments are bought if they
+ * cost less than the client is worth: its payment, a share of the lawsuit and
+ * FCC fine for a complaint it avoids, and for problem 5, where one client not
+ * paying loses everything, all the payments.
+ *
+ * Raising a router also lets the packets planned before it through sooner,
+ * which can move where the later ones wait, so the plan is repeated with the
+ * raised bandwidths until a pass buys nothing. That pass is exactly the
+ * simulation of the plan. The plan is only kept if it scores better than
+ * the bandwidths it started from
+ */
+class BandwidthPlanner {
+    // Passes before the plan is taken as it is. It settles within a few dozen
+    // on the sample inputs and a few hundred on congested trees of 10000 nodes
+    private static final int MAX_PASSES = 1000;
+    private static final float UNREACHABLE = Float.POSITIVE_INFINITY;
+
+    private final Info info;
+    private final Adjacency graph;
+    private final ClientIndex clients;
+    private final int[] shortestDistances;
+    private final boolean penalties;
+    // What a client that does not pay costs the revenue, and a complaint, by slot
+    private final float[] paymentWorth;
+    private final float[] complaintWorth;
+
+    // State of the pass being planned
+    private int[] bandwidths;
+    private final ReservationTable usage;
+    private int[] departures = new int[0];
+    // Number of routers the last walked packet was forwarded by
+    private int forwarded;
+
+    // Cheapest way to leave every router on every tick of the slack, and the tick left the router before on
+    private float[] cost = new float[0];
+    private float[] next = new float[0];
+    private int[] from = new int[0];
+
+    private int[] delays;
+    private float revenue;
+
+    /**
+     * @param info: data parsed from the input file, its clients are the slots
+     */
+    BandwidthPlanner(Info info) {
+        this.info = info;
+        this.graph = info.graph.adjacency;
+        this.clients = info.clientIndex();
+        this.shortestDistances = DistanceCache.shared(this.graph);
+        this.penalties = info.problem == 3 || info.problem == 4;
+        this.usage = new ReservationTable(this.clients.size());
+
+        int n = this.clients.size();
+        this.paymentWorth = new float[n];
+        this.complaintWorth = new float[n];
+        float payments = 0f;
+        for (int slot = 0; slot < n; ++slot) {
+            payments += this.clients.payments[slot];
+        }
+        int lawsuitThreshold = (int) (info.rho1 * n);
+        int fineThreshold = (int) (this.clients.fccCount * info.rho2);
+        for (int slot = 0; slot < n; ++slot) {
+            this.paymentWorth[slot] = info.problem == 5 ? payments : this.clients.payments[slot];
+            if (this.penalties) {
+                // Thresholds of 0 apply with no complaints at all, there is nothing to avoid
+                float worth = lawsuitThreshold > 0 ? info.lawsuit / lawsuitThreshold : 0f;
+                if (this.clients.isFcc[slot] && fineThreshold > 0) {
+                    worth += info.fccFine / fineThreshold;
+                }
+                this.complaintWorth[slot] = worth;
+            }
+        }
+    }
+
+    /**
+     * Plans the bandwidths of a solution
+     *
+     * @param sol: paths and priorities to plan for, its clients in the order of Info.clients
+     * @param start: bandwidths to start from and to keep if the plan does not score better, indexed by node ID
+     * @return the planned bandwidths, a new list
+     */
+    ArrayList<Integer> plan(SolutionObject sol, List<Integer> start) {
+        int[] starting = new int[start.size()];
+        for (int node = 0; node < starting.length; ++node) {
+            starting[node] = start.get(node);
+        }
+        int[] planned = plan(CompactSolution.from(this.info.clients, sol), starting);
+        ArrayList<Integer> bandwidths = new ArrayList<>(planned.length);
+        for (int bandwidth : planned) {
+            bandwidths.add(bandwidth);
+        }
+        return bandwidths;
+    }
+
+    /**
+     * Plans the bandwidths of a compact solution
+     *
+     * @param sol: paths and priorities to plan for, its slots those of Info.clients, its bandwidths are not read
+     * @param start: bandwidths to start from and to keep if the plan does not score better, indexed by node ID
+     * @return the planned bandwidths indexed by node ID, a new array
+     */
+    int[] plan(CompactSolution sol, int[] start) {
+        int[] order = EventSimulator.rankOrder(sol.priorities);
+        this.bandwidths = start.clone();
+        boolean bought = true;
+        for (int passes = 0; passes < MAX_PASSES && bought; ++passes) {
+            bought = pass(sol, order, true);
+        }
+        if (bought) {
+            pass(sol, order, false);
+        }
+        int[] planned = this.bandwidths;
+        int[] plannedDelays = this.delays;
+        float plannedRevenue = score(planned, plannedDelays);
+
+        // Buying is decided one client at a time, check the whole plan pays off
+        this.bandwidths = start.clone();
+        pass(sol, order, false);
+        float revenue = score(this.bandwidths, this.delays);
+        if (plannedRevenue > revenue) {
+            this.bandwidths = planned;
+            this.delays = plannedDelays;
+            this.revenue = plannedRevenue;
+        } else {
+            this.revenue = revenue;
+        }
+        return this.bandwidths.clone();
+    }
+
+    /**
+     * @return the delays the last plan gives, indexed by slot
+     */
+    int[] delays() {
+        return this.delays;
+    }
+
+    /**
+     * @return the revenue of the last plan
+     */
+    float revenue() {
+        return this.revenue;
+    }
+
+    /**
+     * Plans every packet in rank order against the current bandwidths
+     *
+     * @param buy: may bandwidth be bought for packets that arrive too late?
+     * @return true if any was bought
+     */
+    private boolean pass(CompactSolution sol, int[] order, boolean buy) {
+        this.usage.clear();
+        this.delays = new int[sol.slots()];
+        boolean bought = false;
+        for (int slot : order) {
+            int delay = walk(sol, slot);
+            if (buy && delay > deadline(slot) && upgrade(sol, slot, delay)) {
+                bought = true;
+                delay = walk(sol, slot);
+            }
+            this.delays[slot] = delay;
+            int start = sol.pathOffsets[slot];
+            for (int i = 0; i < this.forwarded; ++i) {
+                reserve(sol.pathPool[start + i], this.departures[i]);
+            }
+        }
+        return bought;
+    }
+
+    /**
+     * Finds when the packet leaves every router of its path, as the simulator would
+     *
+     * @return the packet's delay, Integer.MAX_VALUE if it is lost
+     */
+    private int walk(CompactSolution sol, int slot) {
+        this.forwarded = 0;
+        int start = sol.pathOffsets[slot];
+        int length = sol.pathLength(slot);
+        if (length == 0 || sol.pathPool[start] != this.graph.contentProvider()) {
+            return Integer.MAX_VALUE;
+        }
+        if (this.departures.length < length) {
+            this.departures = new int[length];
+        }
+        // Ready at the content provider on the first tick
+        int ready = 1;
+        for (int i = 0; i + 1 < length; ++i) {
+            int router = sol.pathPool[start + i];
+            int departure = departure(router, ready);
+            if (departure < 0) {
+                // Stuck at a router without bandwidth
+                return Integer.MAX_VALUE;
+            }
+            this.departures[this.forwarded++] = departure;
+            if (!this.graph.hasEdge(sol.pathPool[start + i + 1], router)) {
+                return Integer.MAX_VALUE;
+            }
+            ready = departure + 1;
+        }
+        int client = sol.clientIds[slot];
+        if (sol.pathPool[start + length - 1] != client || length - 1 < this.shortestDistances[client]) {
+            return Integer.MAX_VALUE;
+        }
+        return ready - 1;
+    }
+
+    /**
+     * @return the last delay the client takes without complaining, or without losing its payment
+     * if complaints cost nothing
+     */
+    private int deadline(int slot) {
+        int optimal = this.shortestDistances[this.clients.ids[slot]];
+        int alpha = Sensitivity.lastDelayWithin(this.clients.alphas[slot], optimal);
+        if (!this.penalties || this.clients.payments[slot] == 0) {
+            return alpha;
+        }
+        return Math.min(alpha, Sensitivity.lastDelayWithin(this.clients.betas[slot], optimal));
+    }
+
+    /**
+     * Buys the bandwidth that gets the packet to its client in time, if the
+     * client is worth more than it costs. Without penalties that is the alpha
+     * deadline, with them the better of not complaining and only being paid
+     *
+     * @param delay: the delay the packet takes with the current bandwidths
+     * @return true if anything was bought
+     */
+    private boolean upgrade(CompactSolution sol, int slot, int delay) {
+        if (!valid(sol, slot)) {
+            return false;
+        }
+        int optimal = this.shortestDistances[this.clients.ids[slot]];
+        int alpha = Sensitivity.lastDelayWithin(this.clients.alphas[slot], optimal);
+        int deadline = deadline(slot);
+        float lost = delay > alpha ? this.paymentWorth[slot] : 0f;
+        float complaint = this.complaintWorth[slot];
+
+        // Gain over the cost of each deadline, not complaining wins ties
+        float onTime = cheapest(sol, slot, deadline);
+        float onTimeGain = lost + complaint - onTime;
+        float paid = delay > alpha && alpha > deadline ? cheapest(sol, slot, alpha) : UNREACHABLE;
+        float paidGain = lost - paid;
+        if (onTime != UNREACHABLE && onTimeGain > 0 && onTimeGain >= paidGain) {
+            buy(sol, slot, deadline);
+            return true;
+        }
+        if (paid != UNREACHABLE && paidGain > 0) {
+            buy(sol, slot, alpha);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the path can reach the client at all: it starts at the
+     * content provider, follows links and ends at the client after at least as
+     * many hops as its shortest distance
+     */
+    private boolean valid(CompactSolution sol, int slot) {
+        int start = sol.pathOffsets[slot];
+        int length = sol.pathLength(slot);
+        if (length < 2 || sol.pathPool[start] != this.graph.contentProvider()) {
+            return false;
+        }
+        for (int i = 0; i + 1 < length; ++i) {
+            if (!this.graph.hasEdge(sol.pathPool[start + i + 1], sol.pathPool[start + i])) {
+                return false;
+            }
+        }
+        int client = sol.clientIds[slot];
+        return sol.pathPool[start + length - 1] == client && length - 1 >= this.shortestDistances[client];
+    }
+
+    /**
+     * Finds the cheapest departures that have the packet arrive by the deadline.
+     * The packet can leave its i-th router on tick i + 1 + k for k up to the
+     * slack, having been ready there on any tick up to that one
+     *
+     * @return the cost of the increments, UNREACHABLE if no bandwidth gets it there in time
+     */
+    private float cheapest(CompactSolution sol, int slot, int deadline) {
+        int start = sol.pathOffsets[slot];
+        int hops = sol.pathLength(slot) - 1;
+        int slack = deadline - hops;
+        if (slack < 0) {
+            return UNREACHABLE;
+        }
+        int width = slack + 1;
+        ensureTables(hops, width);
+        // Ready at the content provider on the first tick only
+        Arrays.fill(this.cost, 0, width, UNREACHABLE);
+        this.cost[0] = 0f;
+        for (int i = 0; i < hops; ++i) {
+            int router = sol.pathPool[start + i];
+            float best = UNREACHABLE;
+            int bestK = -1;
+            for (int k = 0; k < width; ++k) {
+                // Being ready sooner never leaves later, so keep the cheapest ready tick so far
+                if (this.cost[k] < best) {
+                    best = this.cost[k];
+                    bestK = k;
+                }
+                this.from[i * width + k] = bestK;
+                this.next[k] = best == UNREACHABLE ? UNREACHABLE : best + increment(router, i + 1 + k);
+            }
+            float[] swap = this.cost;
+            this.cost = this.next;
+            this.next = swap;
+        }
+        float best = UNREACHABLE;
+        for (int k = 0; k < width; ++k) {
+            best = Math.min(best, this.cost[k]);
+        }
+        return best;
+    }
+
+    /**
+     * Raises the routers of the packet's path to let it leave them on the
+     * ticks the cheapest plan for the deadline has it leave
+     */
+    private void buy(CompactSolution sol, int slot, int deadline) {
+        cheapest(sol, slot, deadline);
+        int start = sol.pathOffsets[slot];
+        int hops = sol.pathLength(slot) - 1;
+        int width = deadline - hops + 1;
+        int k = 0;
+        for (int j = 1; j < width; ++j) {
+            if (this.cost[j] < this.cost[k]) {
+                k = j;
+            }
+        }
+        // Walk the departures back from the last router
+        for (int i = hops - 1; i >= 0; --i) {
+            int router = sol.pathPool[start + i];
+            int tick = i + 1 + k;
+            int needed = forwardedOn(router, tick) + 1;
+            if (this.bandwidths[router] < needed) {
+                this.bandwidths[router] = needed;
+            }
+            k = this.from[i * width + k];
+        }
+    }
+
+    /**
+     * @return what letting one more packet leave the router on the tick costs
+     */
+    private float increment(int router, int tick) {
+        int needed = forwardedOn(router, tick) + 1;
+        int bandwidth = this.bandwidths[router];
+        if (needed <= bandwidth) {
+            return 0f;
+        }
+        int original = this.info.bandwidths.get(router);
+        // Only the units above the original bandwidth are paid for
+        return (Math.max(needed, original) - Math.max(bandwidth, original)) * this.info.costBandwidth;
+    }
+
+    /**
+     * @return the first tick from the given one on where the router can forward another packet, -1 if never
+     */
+    private int departure(int router, int tick) {
+        int bandwidth = this.bandwidths[router];
+        if (bandwidth <= 0) {
+            return -1;
+        }
+        if (bandwidth >= this.clients.size()) {
+            return tick;
+        }
+        return this.usage.firstAvailable(router, tick, bandwidth);
+    }
+
+    private int forwardedOn(int router, int tick) {
+        return this.usage.count(router, tick);
+    }
+
+    private void reserve(int router, int tick) {
+        // A router with bandwidth for every client never holds a packet up
+        if (this.bandwidths[router] >= this.clients.size()) {
+            return;
+        }
+        this.usage.reserve(router, tick);
+    }
+
+    private float score(int[] bandwidths, int[] delays) {
+        boolean updated = false;
+        for (int node = 0; node < this.info.bandwidths.size() && !updated; ++node) {
+            updated = bandwidths[node] != this.info.bandwidths.get(node);
+        }
+        return Revenue.revenue(this.info, this.shortestDistances, bandwidths, delays,
+                this.penalties, this.penalties, updated, null);
+    }
+
+    private void ensureTables(int hops, int width) {
+        if (this.cost.length < width) {
+            this.cost = new float[width];
+            this.next = new float[width];
+        }
+        if (this.from.length < hops * width) {
+            this.from = new int[hops * width];
+        }
+    }
+}
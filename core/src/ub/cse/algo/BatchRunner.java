@@ -0,0 +1,244 @@
+package ub.cse.algo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch mode of the Driver: scores many testcases in one JVM so JIT warm-up
+ * is paid once, spreading them over a thread pool.
+ *
+ * Usage: Driver --batch <directory or manifest> [--threads N] [--out summary.json]
+ *
+ * A directory is searched for every network file with its "-info" file next to
+ * it. A manifest lists one network file per line (relative to the manifest,
+ * blank lines and lines starting with # are skipped). The summary is JSON with
+ * the revenue, complaint counts and the time spent in every phase per testcase
+ */
+class BatchRunner {
+
+    /**
+     * Outcome of scoring one testcase. Times are in nanoseconds
+     */
+    static class Evaluation {
+        String testcase;
+        int clients;
+        float revenue;
+        int complaints;
+        int fccComplaints;
+        long parseNanos;
+        long solveNanos;
+        long simulateNanos;
+        long revenueNanos;
+        // Set instead of the numbers above when the testcase failed
+        String error;
+    }
+
+    /**
+     * @param problem: the problem number the testcases are parsed for
+     * @param args: the command line arguments following --batch
+     */
+    static void main(int problem, String[] args) {
+        String source = null;
+        String out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; ++i) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--out") && i + 1 < args.length) {
+                out = args[++i];
+            } else if (source == null) {
+                source = args[i];
+            } else {
+                System.out.println("Unknown option " + args[i]);
+                return;
+            }
+        }
+        if (source == null || threads < 1) {
+            System.out.println("Usage: --batch <directory or manifest> [--threads N] [--out summary.json]");
+            return;
+        }
+
+        try {
+            List<String> testcases = findTestcases(new File(source));
+            long start = System.nanoTime();
+            List<Evaluation> evaluations = run(problem, testcases, threads);
+            long wall = System.nanoTime() - start;
+
+            if (out == null) {
+                writeSummary(System.out, problem, threads, wall, evaluations);
+            } else {
+                try (PrintStream stream = new PrintStream(new File(out), "UTF-8")) {
+                    writeSummary(stream, problem, threads, wall, evaluations);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Scores the testcases on a fixed thread pool
+     *
+     * @param problem: the problem number the testcases are parsed for
+     * @param testcases: network file of every testcase
+     * @param threads: size of the thread pool
+     * @return the evaluations, in the same order as the testcases
+     */
+    static List<Evaluation> run(int problem, List<String> testcases, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Evaluation>> futures = new ArrayList<>();
+            for (String testcase : testcases) {
+                futures.add(pool.submit(() -> evaluate(problem, testcase)));
+            }
+            List<Evaluation> evaluations = new ArrayList<>();
+            for (int i = 0; i < futures.size(); ++i) {
+                try {
+                    evaluations.add(futures.get(i).get());
+                } catch (ExecutionException | InterruptedException e) {
+                    Evaluation failed = new Evaluation();
+                    failed.testcase = testcases.get(i);
+                    failed.error = String.valueOf(e.getCause() != null ? e.getCause() : e);
+                    evaluations.add(failed);
+                }
+            }
+            return evaluations;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses, solves and scores a single testcase the same way Driver.main does
+     *
+     * @param problem: the problem number the testcase is parsed for
+     * @param testcase: the network file, the info file is testcase + "-info"
+     * @return the evaluation of the testcase
+     */
+    static Evaluation evaluate(int problem, String testcase) {
+        Evaluation evaluation = new Evaluation();
+        evaluation.testcase = testcase;
+        if (!new File(testcase).isFile() || !new File(testcase + "-info").isFile()) {
+            evaluation.error = "missing network or info file";
+            return evaluation;
+        }
+        try {
+            long start = System.nanoTime();
+            MPUtility mpu = new MPUtility(problem);
+            mpu.readFile(testcase);
+            Info info = mpu.readInfo(testcase + "-info");
+            long parsed = System.nanoTime();
+
+            SolutionObject solObj = Driver.solve(info);
+            info.solutionObject = solObj;
+            long solved = System.nanoTime();
+            if (solObj == null || solObj.paths == null || solObj.paths.isEmpty()) {
+                evaluation.error = "no paths returned";
+                return evaluation;
+            }
+            if (solObj.bandwidths == null || solObj.bandwidths.isEmpty()) {
+                solObj.bandwidths = info.bandwidths;
+            }
+
+            evaluation.clients = info.clients.size();
+            evaluation.parseNanos = parsed - start;
+            evaluation.solveNanos = solved - parsed;
+            Driver.runHelper(info, solObj, evaluation);
+        } catch (RuntimeException e) {
+            evaluation.error = e.toString();
+        }
+        return evaluation;
+    }
+
+    /**
+     * @param source: a directory of testcases or a manifest file
+     * @return the network file of every testcase
+     * @throws IOException if the manifest can not be read
+     */
+    static List<String> findTestcases(File source) throws IOException {
+        List<String> testcases = new ArrayList<>();
+        if (source.isDirectory()) {
+            File[] files = source.listFiles();
+            if (files != null) {
+                Arrays.sort(files);
+                for (File file : files) {
+                    if (file.isFile() && new File(file.getPath() + "-info").isFile()) {
+                        testcases.add(file.getPath());
+                    }
+                }
+            }
+        } else {
+            File base = source.getAbsoluteFile().getParentFile();
+            for (String line : Files.readAllLines(source.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                File file = new File(line);
+                testcases.add((file.isAbsolute() ? file : new File(base, line)).getPath());
+            }
+        }
+        return testcases;
+    }
+
+    /**
+     * Writes the summary as a JSON object
+     */
+    private static void writeSummary(PrintStream out, int problem, int threads, long wallNanos,
+                                     List<Evaluation> evaluations) {
+        out.println("{");
+        out.println("  \"problem\": " + problem + ",");
+        out.println("  \"threads\": " + threads + ",");
+        out.println("  \"wallMs\": " + millis(wallNanos) + ",");
+        out.println("  \"testcases\": [");
+        for (int i = 0; i < evaluations.size(); ++i) {
+            Evaluation e = evaluations.get(i);
+            StringBuilder line = new StringBuilder("    {\"testcase\": ").append(quote(e.testcase));
+            if (e.error != null) {
+                line.append(", \"error\": ").append(quote(e.error));
+            } else {
+                line.append(", \"clients\": ").append(e.clients)
+                        .append(", \"revenue\": ").append(Float.isFinite(e.revenue) ? Float.toString(e.revenue) : quote(Float.toString(e.revenue)))
+                        .append(", \"complaints\": ").append(e.complaints)
+                        .append(", \"fccComplaints\": ").append(e.fccComplaints)
+                        .append(", \"parseMs\": ").append(millis(e.parseNanos))
+                        .append(", \"solveMs\": ").append(millis(e.solveNanos))
+                        .append(", \"simulateMs\": ").append(millis(e.simulateNanos))
+                        .append(", \"revenueMs\": ").append(millis(e.revenueNanos));
+            }
+            line.append(i + 1 < evaluations.size() ? "}," : "}");
+            out.println(line);
+        }
+        out.println("  ]");
+        out.println("}");
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,107 @@
+package ub.cse.algo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The clients of a testcase laid out for lookups by node ID and for tight
+ * loops over every client: the slot of every node's client, and one array
+ * per Client field indexed by slot, the order of info.clients.
+ *
+ * Built once when the input is parsed. The arrays are shared by everyone
+ * holding the Info and must not be modified. Solutions may reorder or swap
+ * the clients in info.clients, so Info.clientIndex checks the index against
+ * the list with matches before handing it out
+ */
+class ClientIndex implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    // Slot of every node's client, -1 for nodes that are not clients
+    private final int[] slots;
+    // The clients the index was built from, by slot
+    private final Client[] clients;
+    // Client fields by slot
+    final int[] ids;
+    final float[] alphas;
+    final float[] betas;
+    final int[] payments;
+    final boolean[] isRural;
+    final boolean[] isFcc;
+    // Number of clients with the FCC
+    final int fccCount;
+
+    /**
+     * @param clients: the clients in slot order
+     * @param nodes: number of nodes in the network
+     */
+    ClientIndex(List<Client> clients, int nodes) {
+        int size = clients.size();
+        this.slots = new int[nodes];
+        Arrays.fill(this.slots, -1);
+        this.clients = clients.toArray(new Client[0]);
+        this.ids = new int[size];
+        this.alphas = new float[size];
+        this.betas = new float[size];
+        this.payments = new int[size];
+        this.isRural = new boolean[size];
+        this.isFcc = new boolean[size];
+        int fccCount = 0;
+        for (int slot = 0; slot < size; ++slot) {
+            Client client = clients.get(slot);
+            this.ids[slot] = client.id;
+            this.alphas[slot] = client.alpha;
+            this.betas[slot] = client.beta;
+            this.payments[slot] = client.payment;
+            this.isRural[slot] = client.isRural;
+            this.isFcc[slot] = client.isFcc;
+            if (client.isFcc) {
+                fccCount++;
+            }
+            // A node listed twice keeps its first client
+            if (client.id >= 0 && client.id < nodes && this.slots[client.id] == -1) {
+                this.slots[client.id] = slot;
+            }
+        }
+        this.fccCount = fccCount;
+    }
+
+    /**
+     * @param clients: the clients in slot order
+     * @return true if the index was built from exactly these clients in this order
+     */
+    boolean matches(List<Client> clients) {
+        if (clients.size() != this.clients.length) {
+            return false;
+        }
+        for (int slot = 0; slot < this.clients.length; ++slot) {
+            if (clients.get(slot) != this.clients[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of clients
+     */
+    int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * @param node: ID of the node
+     * @return the slot of the node's client, -1 if the node is not a client
+     */
+    int slot(int node) {
+        return node >= 0 && node < this.slots.length ? this.slots[node] : -1;
+    }
+
+    /**
+     * @param node: ID of the node
+     * @return true if the node is a client
+     */
+    boolean isClient(int node) {
+        return slot(node) != -1;
+    }
+}
@@ -0,0 +1,165 @@
+package ub.cse.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Primitive-array form of a SolutionObject.
+ *
+ * Clients are addressed by slot, their index in the client list the solution
+ * was built for (normally Info.clients). The path of slot s is stored in
+ * pathPool[pathOffsets[s]] up to (but not including) pathPool[pathOffsets[s + 1]].
+ * Priorities are indexed by slot and bandwidths by node ID. Delays produced
+ * from it are int arrays indexed by slot as well
+ */
+class CompactSolution {
+    // Client ID of every slot
+    final int[] clientIds;
+    // Start of every slot's path in the pool, with one extra entry for the end
+    final int[] pathOffsets;
+    // All the paths laid out back to back
+    final int[] pathPool;
+    // Priority of every slot, 0 when the solution gave none
+    final int[] priorities;
+    // Bandwidth of every node
+    final int[] bandwidths;
+
+    /**
+     * @param clientIds: client ID of every slot
+     * @param pathOffsets: start of every slot's path, length is slots + 1
+     * @param pathPool: all the paths back to back
+     * @param priorities: priority of every slot
+     * @param bandwidths: bandwidth of every node
+     */
+    CompactSolution(int[] clientIds, int[] pathOffsets, int[] pathPool, int[] priorities, int[] bandwidths) {
+        this.clientIds = clientIds;
+        this.pathOffsets = pathOffsets;
+        this.pathPool = pathPool;
+        this.priorities = priorities;
+        this.bandwidths = bandwidths;
+    }
+
+    /**
+     * Flattens a SolutionObject. A missing path is stored as an empty one,
+     * which the simulator treats the same way
+     *
+     * @param clients: the clients in slot order
+     * @param sol: the solution to flatten
+     * @return the compact solution
+     */
+    static CompactSolution from(List<Client> clients, SolutionObject sol) {
+        int slots = clients.size();
+        int[] clientIds = new int[slots];
+        int[] pathOffsets = new int[slots + 1];
+        int[] priorities = new int[slots];
+        for (int slot = 0; slot < slots; ++slot) {
+            Client client = clients.get(slot);
+            clientIds[slot] = client.id;
+            ArrayList<Integer> path = sol.paths.get(client.id);
+            pathOffsets[slot + 1] = pathOffsets[slot] + (path == null ? 0 : path.size());
+            Integer priority = sol.priorities.get(client.id);
+            priorities[slot] = priority != null ? priority : 0;
+        }
+
+        int[] pathPool = new int[pathOffsets[slots]];
+        for (int slot = 0; slot < slots; ++slot) {
+            ArrayList<Integer> path = sol.paths.get(clientIds[slot]);
+            for (int i = pathOffsets[slot]; i < pathOffsets[slot + 1]; ++i) {
+                pathPool[i] = path.get(i - pathOffsets[slot]);
+            }
+        }
+
+        int[] bandwidths = new int[sol.bandwidths.size()];
+        for (int node = 0; node < bandwidths.length; ++node) {
+            bandwidths[node] = sol.bandwidths.get(node);
+        }
+        return new CompactSolution(clientIds, pathOffsets, pathPool, priorities, bandwidths);
+    }
+
+    /**
+     * Expands back into a SolutionObject. Empty paths are left out
+     *
+     * @return the equivalent SolutionObject
+     */
+    SolutionObject toSolutionObject() {
+        SolutionObject sol = new SolutionObject();
+        for (int slot = 0; slot < this.clientIds.length; ++slot) {
+            if (pathLength(slot) > 0) {
+                ArrayList<Integer> path = new ArrayList<>(pathLength(slot));
+                for (int i = this.pathOffsets[slot]; i < this.pathOffsets[slot + 1]; ++i) {
+                    path.add(this.pathPool[i]);
+                }
+                sol.paths.put(this.clientIds[slot], path);
+            }
+            sol.priorities.put(this.clientIds[slot], this.priorities[slot]);
+        }
+        sol.bandwidths = new ArrayList<>(this.bandwidths.length);
+        for (int bandwidth : this.bandwidths) {
+            sol.bandwidths.add(bandwidth);
+        }
+        return sol;
+    }
+
+    /**
+     * @return the number of client slots
+     */
+    int slots() {
+        return this.clientIds.length;
+    }
+
+    /**
+     * @param slot: client slot
+     * @return the number of nodes in the slot's path
+     */
+    int pathLength(int slot) {
+        return this.pathOffsets[slot + 1] - this.pathOffsets[slot];
+    }
+
+    /**
+     * @param original: the bandwidths the network started with
+     * @return true if any node's bandwidth differs from the original
+     */
+    boolean bandwidthsChanged(List<Integer> original) {
+        if (original.size() != this.bandwidths.length) {
+            return true;
+        }
+        for (int node = 0; node < this.bandwidths.length; ++node) {
+            if (original.get(node) != this.bandwidths[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param clients: the clients in slot order
+     * @param delays: map of client IDs to delays
+     * @return the delays indexed by slot, Integer.MAX_VALUE where missing
+     */
+    static int[] delaysBySlot(List<Client> clients, HashMap<Integer, Integer> delays) {
+        int[] bySlot = new int[clients.size()];
+        Arrays.fill(bySlot, Integer.MAX_VALUE);
+        for (int slot = 0; slot < bySlot.length; ++slot) {
+            Integer delay = delays.get(clients.get(slot).id);
+            if (delay != null) {
+                bySlot[slot] = delay;
+            }
+        }
+        return bySlot;
+    }
+
+    /**
+     * @param clients: the clients in slot order
+     * @param delays: delays indexed by slot
+     * @return map of client IDs to delays
+     */
+    static HashMap<Integer, Integer> delaysById(List<Client> clients, int[] delays) {
+        HashMap<Integer, Integer> byId = new HashMap<>(clients.size() * 2);
+        for (int slot = 0; slot < delays.length; ++slot) {
+            byId.put(clients.get(slot).id, delays[slot]);
+        }
+        return byId;
+    }
+}
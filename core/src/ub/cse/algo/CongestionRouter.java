@@ -0,0 +1,390 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.ReservationTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Routes every client around congested routers instead of along a plain BFS
+ * shortest path.
+ *
+ * Packets are routed one at a time in the order the simulator ranks them.
+ * Since a router forwards its best ranked packets first, a packet only ever
+ * waits for the ones routed before it, and those are recorded in a table of
+ * how many packets every router forwards on every tick. Each packet takes the
+ * path that reaches its client on the earliest tick given that table: a
+ * shortest path when it is free, otherwise a detour or a wait, whichever is
+ * sooner. The ticks recorded are the delays the simulator will report.
+ *
+ * Each client first tries the nodes on its shortest paths only, which is
+ * all it takes unless a detour can beat them. Otherwise a search visits each
+ * node at most once with its ticks kept in buckets, so routing costs
+ * O(nodes + links) per client at worst, and A* style bounds keep the search
+ * near the client's shortest paths. Clients that can not be reached through routers with
+ * bandwidth keep their BFS path
+ */
+class CongestionRouter {
+    private final Adjacency graph;
+    private final ArrayList<Client> clients;
+    private final int[] bandwidths;
+    private final int[] shortestDistances;
+
+    // Packets forwarded by every router on every tick, left out for routers that never hold one up
+    private final ReservationTable usage;
+
+    // Search state, stamped with the search it belongs to so it is never cleared
+    private final int[] visited;
+    private final int[] readyTick;
+    private final int[] parent;
+    private int search;
+    private final Buckets buckets = new Buckets();
+    // Nodes on the client's shortest paths, and their own search state
+    private final int[] cone;
+    private int coneSize;
+    private final int[] coneStamp;
+    private final int[] coneParentStamp;
+    private final int[] coneReady;
+    private final int[] coneParent;
+
+    // Predicted delay of every client routed so far
+    private final HashMap<Integer, Integer> delays = new HashMap<>();
+    private HashMap<Integer, ArrayList<Integer>> bfsPaths;
+
+    /**
+     * @param info: data parsed from the input file
+     * @param bandwidths: bandwidth of every router the paths are planned for
+     */
+    CongestionRouter(Info info, List<Integer> bandwidths) {
+        this.graph = info.graph.adjacency;
+        this.clients = info.clients;
+        this.shortestDistances = DistanceCache.shared(this.graph);
+        this.bandwidths = new int[this.graph.size()];
+        for (int node = 0; node < this.bandwidths.length; ++node) {
+            this.bandwidths[node] = node < bandwidths.size() ? bandwidths.get(node) : 0;
+        }
+        this.usage = new ReservationTable(this.clients.size());
+        this.visited = new int[this.graph.size()];
+        this.readyTick = new int[this.graph.size()];
+        this.parent = new int[this.graph.size()];
+        this.cone = new int[this.graph.size()];
+        this.coneStamp = new int[this.graph.size()];
+        this.coneParentStamp = new int[this.graph.size()];
+        this.coneReady = new int[this.graph.size()];
+        this.coneParent = new int[this.graph.size()];
+    }
+
+    /**
+     * Routes every client in the order the simulator ranks them
+     *
+     * @param priorities: the priorities the solution will use, missing ones count as 0
+     * @return Map of Client IDs to the path from ISP to Client
+     */
+    HashMap<Integer, ArrayList<Integer>> route(HashMap<Integer, Integer> priorities) {
+        int[] slotPriorities = new int[this.clients.size()];
+        for (int slot = 0; slot < slotPriorities.length; ++slot) {
+            Integer priority = priorities.get(this.clients.get(slot).id);
+            slotPriorities[slot] = priority != null ? priority : 0;
+        }
+
+        HashMap<Integer, ArrayList<Integer>> paths = new HashMap<>();
+        for (int slot : EventSimulator.rankOrder(slotPriorities)) {
+            int client = this.clients.get(slot).id;
+            paths.put(client, route(client));
+        }
+        return paths;
+    }
+
+    /**
+     * Routes one client after the ones routed so far
+     *
+     * @param client: ID of the client
+     * @return the path from ISP to Client
+     */
+    ArrayList<Integer> route(int client) {
+        int provider = this.graph.contentProvider();
+        if (client == provider) {
+            this.delays.put(client, 0);
+            return new ArrayList<>(List.of(provider));
+        }
+        // The cone is optimal when it reaches the client on the earliest tick any path could
+        int coneArrival = searchCone(provider, client);
+        int provided = earliestDeparture(provider, 1);
+        ArrayList<Integer> path;
+        if (coneArrival >= 0 && coneArrival == provided + this.shortestDistances[client] - 1) {
+            path = conePath(client);
+        } else if (search(provider, client, coneArrival >= 0 ? coneArrival + 1 : Integer.MAX_VALUE)) {
+            // Walk back from the client
+            path = new ArrayList<>();
+            for (int node = client; node != -1; node = this.parent[node]) {
+                path.add(node);
+            }
+            Collections.reverse(path);
+        } else if (coneArrival >= 0) {
+            path = conePath(client);
+        } else {
+            return fallback(client);
+        }
+
+        // Reserve a slot on every router on the way
+        for (int i = 0; i + 1 < path.size(); ++i) {
+            int router = path.get(i);
+            // The packet leaves a router on the tick before it is ready at the next one
+            reserve(router, this.readyTick[path.get(i + 1)] - 1);
+        }
+        this.delays.put(client, this.readyTick[client] - 1);
+        return path;
+    }
+
+    /**
+     * Finds the earliest the packet can reach the client along shortest
+     * paths only, over the nodes that lie on one of them. Every path waits
+     * the same at the content provider, so when none of the shortest paths
+     * waits after it no path at all reaches the client sooner
+     *
+     * @return the tick the client would be reached on through the cone, -1 if it can not be
+     */
+    private int searchCone(int provider, int client) {
+        this.search++;
+        int[] level = this.shortestDistances;
+
+        // Collect the cone from the client back towards the content provider, level by level
+        this.coneSize = 0;
+        this.cone[this.coneSize++] = client;
+        this.coneStamp[client] = this.search;
+        for (int i = 0; i < this.coneSize; ++i) {
+            int node = this.cone[i];
+            for (long edge = this.graph.edgeStart(node); edge < this.graph.edgeEnd(node); ++edge) {
+                int prior = this.graph.target(edge);
+                if (level[prior] == level[node] - 1 && this.coneStamp[prior] != this.search) {
+                    this.coneStamp[prior] = this.search;
+                    this.cone[this.coneSize++] = prior;
+                }
+            }
+        }
+        if (this.cone[this.coneSize - 1] != provider) {
+            return -1;
+        }
+
+        // Then walk it from the content provider on, every level only feeds the next one
+        this.coneReady[provider] = 1;
+        this.coneParent[provider] = -1;
+        for (int i = this.coneSize - 1; i > 0; --i) {
+            int node = this.cone[i];
+            // Nodes none of whose priors the packet reached still hold an earlier search's ticks
+            if (i < this.coneSize - 1 && !coneReached(node)) {
+                continue;
+            }
+            int depart = earliestDeparture(node, this.coneReady[node]);
+            for (long edge = this.graph.edgeStart(node); edge < this.graph.edgeEnd(node); ++edge) {
+                int next = this.graph.target(edge);
+                if (this.coneStamp[next] != this.search || level[next] != level[node] + 1) {
+                    continue;
+                }
+                if (this.coneParentStamp[next] != this.search) {
+                    this.coneParentStamp[next] = this.search;
+                    this.coneReady[next] = Integer.MAX_VALUE;
+                }
+                if (depart >= 0 && depart + 1 < this.coneReady[next]) {
+                    this.coneReady[next] = depart + 1;
+                    this.coneParent[next] = node;
+                }
+            }
+        }
+        return coneReached(client) ? this.coneReady[client] - 1 : -1;
+    }
+
+    /**
+     * @return true if the current cone search reached the node
+     */
+    private boolean coneReached(int node) {
+        return this.coneParentStamp[node] == this.search && this.coneReady[node] != Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the path the cone search found, with the ticks it is ready at every node set
+     */
+    private ArrayList<Integer> conePath(int client) {
+        ArrayList<Integer> path = new ArrayList<>();
+        for (int node = client; node != -1; node = this.coneParent[node]) {
+            path.add(node);
+            this.readyTick[node] = this.coneReady[node];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return the delay every routed client's packet will take, by client ID
+     */
+    HashMap<Integer, Integer> delays() {
+        return this.delays;
+    }
+
+    /**
+     * Finds the earliest tick the packet can be ready at every node until
+     * the client is reached. A packet ready at a node on a tick leaves on
+     * the first tick from then on where the router has bandwidth left, and
+     * is ready at the next node on the tick after.
+     *
+     * Nodes are taken in the order of the earliest tick the client could be
+     * reached through them, as in A*. A node needs at least as many hops to
+     * the client as their shortest distances from the content provider
+     * differ, so nodes far off the way are left for last
+     *
+     * @param limit: bound the client has already been reached with, nodes
+     *             that can not beat it are left out
+     * @return false if the client can not be reached before the limit
+     */
+    private boolean search(int provider, int client, int limit) {
+        this.search++;
+        this.buckets.clear();
+        this.visited[provider] = this.search;
+        this.readyTick[provider] = 1;
+        this.parent[provider] = -1;
+        this.buckets.add(1 + remaining(provider, client), provider);
+
+        while (!this.buckets.isEmpty()) {
+            int best = this.buckets.minTick();
+            int node = this.buckets.poll();
+            if (this.visited[node] != this.search || this.readyTick[node] + remaining(node, client) != best) {
+                continue;
+            }
+            if (node == client) {
+                return true;
+            }
+            // Settled, later entries for the node are skipped
+            this.visited[node] = -this.search;
+
+            int depart = earliestDeparture(node, this.readyTick[node]);
+            if (depart < 0) {
+                continue;
+            }
+            for (long edge = this.graph.edgeStart(node); edge < this.graph.edgeEnd(node); ++edge) {
+                int next = this.graph.target(edge);
+                if (this.visited[next] == -this.search) {
+                    continue;
+                }
+                int bound = depart + 1 + remaining(next, client);
+                if (bound >= limit) {
+                    continue;
+                }
+                if (this.visited[next] != this.search || depart + 1 < this.readyTick[next]) {
+                    this.visited[next] = this.search;
+                    this.readyTick[next] = depart + 1;
+                    this.parent[next] = node;
+                    this.buckets.add(bound, next);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a lower bound on the hops from the node to the client
+     */
+    private int remaining(int node, int client) {
+        return Math.abs(this.shortestDistances[client] - this.shortestDistances[node]);
+    }
+
+    /**
+     * @return the first tick from the given one on where the router can forward another packet, -1 if never
+     */
+    private int earliestDeparture(int router, int tick) {
+        int bandwidth = this.bandwidths[router];
+        if (bandwidth <= 0) {
+            return -1;
+        }
+        if (bandwidth >= this.clients.size()) {
+            return tick;
+        }
+        return this.usage.firstAvailable(router, tick, bandwidth);
+    }
+
+    private void reserve(int router, int tick) {
+        // A router with bandwidth for every client never holds a packet up
+        if (this.bandwidths[router] >= this.clients.size()) {
+            return;
+        }
+        this.usage.reserve(router, tick);
+    }
+
+    /**
+     * A client the routed packets cut off keeps its BFS path, its packet is lost either way.
+     * It is still forwarded until it is stuck at a router without bandwidth, so it
+     * takes up those routers' bandwidth like any other packet
+     */
+    private ArrayList<Integer> fallback(int client) {
+        if (this.bfsPaths == null) {
+            this.bfsPaths = Traversals.bfsPaths(this.graph, this.clients);
+        }
+        this.delays.put(client, Integer.MAX_VALUE);
+        ArrayList<Integer> path = this.bfsPaths.get(client);
+        if (path == null) {
+            return new ArrayList<>();
+        }
+        int ready = 1;
+        for (int i = 0; i + 1 < path.size(); ++i) {
+            int depart = earliestDeparture(path.get(i), ready);
+            if (depart < 0) {
+                break;
+            }
+            reserve(path.get(i), depart);
+            ready = depart + 1;
+        }
+        return new ArrayList<>(path);
+    }
+
+    /**
+     * Nodes waiting to be searched by their bound. Bounds only grow during a
+     * search, so the smallest non-empty bucket is found by walking forward
+     */
+    private static final class Buckets {
+        private int[][] nodes = new int[8][];
+        private int[] sizes = new int[8];
+        private int current;
+        private int count;
+
+        void clear() {
+            Arrays.fill(this.sizes, 0);
+            this.current = 0;
+            this.count = 0;
+        }
+
+        boolean isEmpty() {
+            return this.count == 0;
+        }
+
+        void add(int tick, int node) {
+            if (tick >= this.sizes.length) {
+                int length = Math.max(tick + 1, 2 * this.sizes.length);
+                this.nodes = Arrays.copyOf(this.nodes, length);
+                this.sizes = Arrays.copyOf(this.sizes, length);
+            }
+            if (this.nodes[tick] == null) {
+                this.nodes[tick] = new int[8];
+            } else if (this.sizes[tick] == this.nodes[tick].length) {
+                this.nodes[tick] = Arrays.copyOf(this.nodes[tick], 2 * this.sizes[tick]);
+            }
+            this.nodes[tick][this.sizes[tick]++] = node;
+            this.current = Math.min(this.current, tick);
+            this.count++;
+        }
+
+        int minTick() {
+            while (this.sizes[this.current] == 0) {
+                this.current++;
+            }
+            return this.current;
+        }
+
+        int poll() {
+            int tick = minTick();
+            this.count--;
+            return this.nodes[tick][--this.sizes[tick]];
+        }
+    }
+}
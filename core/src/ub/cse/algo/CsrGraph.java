@@ -0,0 +1,188 @@
+package ub.cse.algo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable compressed sparse row (CSR) representation of the network.
+ * The neighbors of node v are stored in targets[offsets[v]] up to (but
+ * not including) targets[offsets[v + 1]], in the same order they were
+ * listed in the input file
+ */
+final class CsrGraph implements Adjacency, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // The ID of the content provider
+    final int contentProvider;
+    // Start of every node's neighbor run, with one extra entry for the end
+    final int[] offsets;
+    // Neighbor IDs of all nodes laid out back to back
+    final int[] targets;
+    // Built the first time a hub's edge is checked, the graph never changes after that
+    private transient volatile EdgeIndex edgeIndex;
+
+    /**
+     * @param contentProvider: The ID of the content provider
+     * @param offsets: Start index of each node's neighbors, length is nodes + 1
+     * @param targets: Neighbor IDs of all the nodes
+     */
+    CsrGraph(int contentProvider, int[] offsets, int[] targets) {
+        this.contentProvider = contentProvider;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    @Override
+    public int size() {
+        return this.offsets.length - 1;
+    }
+
+    @Override
+    public int contentProvider() {
+        return this.contentProvider;
+    }
+
+    @Override
+    public long edgeCount() {
+        return this.offsets[this.offsets.length - 1];
+    }
+
+    @Override
+    public int degree(int node) {
+        return this.offsets[node + 1] - this.offsets[node];
+    }
+
+    @Override
+    public long edgeStart(int node) {
+        return this.offsets[node];
+    }
+
+    @Override
+    public long edgeEnd(int node) {
+        return this.offsets[node + 1];
+    }
+
+    @Override
+    public int target(long edge) {
+        return this.targets[(int) edge];
+    }
+
+    /**
+     * Small neighbor lists are scanned, the ones of high-degree nodes
+     * are looked up in an EdgeIndex so the check stays O(1) at hubs
+     */
+    @Override
+    public boolean hasEdge(int from, int to) {
+        int start = this.offsets[from], end = this.offsets[from + 1];
+        if (end - start > EdgeIndex.MIN_DEGREE) {
+            return edgeIndex().contains(from, to);
+        }
+        for (int e = start; e < end; ++e) {
+            if (this.targets[e] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the edge index of this graph, building it on first use
+     */
+    EdgeIndex edgeIndex() {
+        EdgeIndex index = this.edgeIndex;
+        if (index == null) {
+            // Racing threads build equal indexes, so whichever one is kept is fine
+            index = new EdgeIndex(this);
+            this.edgeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Builds a CSR graph from a map of node IDs to neighbor lists.
+     * The keys are expected to be the dense range 0 to n - 1
+     *
+     * @param contentProvider: The ID of the content provider
+     * @param graph: The graph represented as a map
+     * @return the equivalent CSR graph
+     */
+    static CsrGraph fromMap(int contentProvider, Map<Integer, ? extends List<Integer>> graph) {
+        int nodes = 0;
+        for (int node : graph.keySet()) {
+            nodes = Math.max(nodes, node + 1);
+        }
+        Builder builder = new Builder(nodes, 0);
+        for (int node = 0; node < nodes; ++node) {
+            List<Integer> neighbors = graph.get(node);
+            if (neighbors != null) {
+                for (int neighbor : neighbors) {
+                    builder.addNeighbor(neighbor);
+                }
+            }
+            builder.endNode();
+        }
+        return builder.build(contentProvider);
+    }
+
+    /**
+     * Incrementally builds a CSR graph one node at a time, in node ID order.
+     * The arrays grow as needed so the sizes passed in are only hints
+     */
+    static final class Builder {
+        private int[] offsets;
+        private int[] targets;
+        private int nodes;
+        private int edges;
+
+        /**
+         * @param expectedNodes: hint for the number of nodes
+         * @param expectedEdges: hint for the number of adjacency entries
+         */
+        Builder(int expectedNodes, int expectedEdges) {
+            this.offsets = new int[Math.max(expectedNodes, 16) + 1];
+            this.targets = new int[Math.max(expectedEdges, 16)];
+        }
+
+        /**
+         * Appends a neighbor to the node currently being built
+         *
+         * @param neighbor: ID of the neighbor
+         */
+        void addNeighbor(int neighbor) {
+            if (this.edges == this.targets.length) {
+                this.targets = Arrays.copyOf(this.targets, grow(this.targets.length));
+            }
+            this.targets[this.edges++] = neighbor;
+        }
+
+        /**
+         * Finishes the node currently being built and moves on to the next ID
+         */
+        void endNode() {
+            if (this.nodes + 2 > this.offsets.length) {
+                this.offsets = Arrays.copyOf(this.offsets, grow(this.offsets.length));
+            }
+            this.offsets[++this.nodes] = this.edges;
+        }
+
+        /**
+         * @param contentProvider: The ID of the content provider
+         * @return the finished graph, trimmed to size
+         */
+        CsrGraph build(int contentProvider) {
+            return new CsrGraph(contentProvider,
+                    Arrays.copyOf(this.offsets, this.nodes + 1),
+                    Arrays.copyOf(this.targets, this.edges));
+        }
+
+        private static int grow(int length) {
+            int grown = length + (length >> 1) + 16;
+            if (grown < 0) {
+                throw new OutOfMemoryError("Graph is too large for a CSR array");
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package ub.cse.algo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Direction-optimizing BFS from the content provider (Beamer et al.).
+ *
+ * Levels are expanded top-down (frontier nodes push to their neighbors) while
+ * the frontier is small, and bottom-up (unvisited nodes look for a parent in
+ * the frontier) once the frontier touches a large share of the remaining
+ * edges, which skips most of the edge checks on the big middle levels.
+ * The frontier is an int array in top-down steps and a bitset in bottom-up
+ * steps, and visited nodes are tracked in a bitset.
+ *
+ * Bottom-up steps scan in-neighbors, so the graph and its reverse are both
+ * needed. The ISP networks list every link in both directions, so the graph
+ * is its own reverse there.
+ *
+ * With parallel set, every level is expanded on the common fork-join pool.
+ * Distances are identical to the sequential BFS and priors always point to a
+ * neighbor one level closer, but which parent is picked may differ
+ */
+final class DirectionOptimizingBfs {
+    // Switch to bottom-up once the frontier's edges exceed unexplored edges / ALPHA
+    private static final int ALPHA = 14;
+    // Switch back to top-down once the frontier drops below nodes / BETA
+    private static final int BETA = 24;
+    // Frontier nodes (top-down) or bitset words (bottom-up) handled per parallel task
+    private static final int GRAIN = 512;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Adjacency graph;
+    private final Adjacency reverse;
+    private final boolean parallel;
+    private final int nodes;
+
+    // Results, -1 for unreachable nodes (and the provider's prior)
+    final int[] distances;
+    final int[] priors;
+
+    private final long[] visited;
+    private int[] frontier;
+    private int frontierSize;
+    private int[] next;
+    private final AtomicInteger nextSize = new AtomicInteger();
+
+    private DirectionOptimizingBfs(Adjacency graph, Adjacency reverse, boolean parallel) {
+        this.graph = graph;
+        this.reverse = reverse;
+        this.parallel = parallel;
+        this.nodes = graph.size();
+        this.distances = new int[this.nodes];
+        this.priors = new int[this.nodes];
+        this.visited = new long[words(this.nodes)];
+        this.frontier = new int[this.nodes];
+        this.next = new int[this.nodes];
+    }
+
+    /**
+     * Runs the BFS on a network that lists every link in both directions
+     *
+     * @param graph: the network
+     * @param parallel: expand every level on the fork-join pool
+     * @return the finished search holding distances and priors
+     */
+    static DirectionOptimizingBfs run(Adjacency graph, boolean parallel) {
+        return run(graph, graph, parallel);
+    }
+
+    /**
+     * Runs the BFS on a directed network
+     *
+     * @param graph: the network
+     * @param reverse: the network with every edge flipped
+     * @param parallel: expand every level on the fork-join pool
+     * @return the finished search holding distances and priors
+     */
+    static DirectionOptimizingBfs run(Adjacency graph, Adjacency reverse, boolean parallel) {
+        DirectionOptimizingBfs bfs = new DirectionOptimizingBfs(graph, reverse, parallel);
+        bfs.search();
+        return bfs;
+    }
+
+    private void search() {
+        Arrays.fill(this.distances, -1);
+        Arrays.fill(this.priors, -1);
+        int source = this.graph.contentProvider();
+        this.distances[source] = 0;
+        this.visited[source >>> 6] |= 1L << source;
+        this.frontier[0] = source;
+        this.frontierSize = 1;
+
+        long unexplored = this.graph.edgeCount() - this.graph.degree(source);
+        long frontierEdges = this.graph.degree(source);
+        boolean bottomUp = false;
+        for (int level = 0; this.frontierSize > 0; ++level) {
+            if (!bottomUp && frontierEdges > unexplored / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && this.frontierSize < this.nodes / BETA) {
+                bottomUp = false;
+            }
+            if (bottomUp) {
+                bottomUpStep(level);
+            } else {
+                topDownStep(level);
+            }
+
+            // Swap in the next frontier and tally its edges for the heuristic
+            int[] swap = this.frontier;
+            this.frontier = this.next;
+            this.next = swap;
+            this.frontierSize = this.nextSize.getAndSet(0);
+            frontierEdges = 0;
+            for (int i = 0; i < this.frontierSize; ++i) {
+                frontierEdges += this.graph.degree(this.frontier[i]);
+            }
+            unexplored -= frontierEdges;
+        }
+    }
+
+    /**
+     * Frontier nodes claim their unvisited neighbors
+     */
+    private void topDownStep(int level) {
+        if (!this.parallel || this.frontierSize < GRAIN) {
+            topDown(level, 0, this.frontierSize, false);
+            return;
+        }
+        int tasks = (this.frontierSize + GRAIN - 1) / GRAIN;
+        IntStream.range(0, tasks).parallel().forEach(task ->
+                topDown(level, task * GRAIN, Math.min(this.frontierSize, (task + 1) * GRAIN), true));
+    }
+
+    private void topDown(int level, int from, int to, boolean atomic) {
+        int[] found = new int[64];
+        int count = 0;
+        for (int i = from; i < to; ++i) {
+            int node = this.frontier[i];
+            for (long e = this.graph.edgeStart(node), end = this.graph.edgeEnd(node); e < end; ++e) {
+                int neighbor = this.graph.target(e);
+                if (claim(neighbor, atomic)) {
+                    this.distances[neighbor] = level + 1;
+                    this.priors[neighbor] = node;
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = neighbor;
+                }
+            }
+        }
+        // Reserve a slice of the next frontier once per task
+        int start = this.nextSize.getAndAdd(count);
+        System.arraycopy(found, 0, this.next, start, count);
+    }
+
+    /**
+     * Unvisited nodes look for a parent in the frontier
+     */
+    private void bottomUpStep(int level) {
+        long[] inFrontier = new long[this.visited.length];
+        for (int i = 0; i < this.frontierSize; ++i) {
+            int node = this.frontier[i];
+            inFrontier[node >>> 6] |= 1L << node;
+        }
+        int words = this.visited.length;
+        if (!this.parallel || words < GRAIN) {
+            bottomUp(level, inFrontier, 0, words);
+            return;
+        }
+        int tasks = (words + GRAIN - 1) / GRAIN;
+        IntStream.range(0, tasks).parallel().forEach(task ->
+                bottomUp(level, inFrontier, task * GRAIN, Math.min(words, (task + 1) * GRAIN)));
+    }
+
+    private void bottomUp(int level, long[] inFrontier, int fromWord, int toWord) {
+        int[] found = new int[64];
+        int count = 0;
+        for (int word = fromWord; word < toWord; ++word) {
+            // Every task owns whole words of the visited bitset, so no CAS is needed
+            long unvisited = ~this.visited[word];
+            long claimed = 0;
+            while (unvisited != 0) {
+                int node = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+                unvisited &= unvisited - 1;
+                if (node >= this.nodes) {
+                    break;
+                }
+                for (long e = this.reverse.edgeStart(node), end = this.reverse.edgeEnd(node); e < end; ++e) {
+                    int parent = this.reverse.target(e);
+                    if ((inFrontier[parent >>> 6] & (1L << parent)) != 0) {
+                        this.distances[node] = level + 1;
+                        this.priors[node] = parent;
+                        claimed |= 1L << node;
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = node;
+                        break;
+                    }
+                }
+            }
+            this.visited[word] |= claimed;
+        }
+        int start = this.nextSize.getAndAdd(count);
+        System.arraycopy(found, 0, this.next, start, count);
+    }
+
+    /**
+     * Marks a node visited
+     *
+     * @return true if this call was the one that visited it
+     */
+    private boolean claim(int node, boolean atomic) {
+        int word = node >>> 6;
+        long bit = 1L << node;
+        if (!atomic) {
+            if ((this.visited[word] & bit) != 0) {
+                return false;
+            }
+            this.visited[word] |= bit;
+            return true;
+        }
+        long current = (long) WORDS.getVolatile(this.visited, word);
+        while ((current & bit) == 0) {
+            if (WORDS.compareAndSet(this.visited, word, current, current | bit)) {
+                return true;
+            }
+            current = (long) WORDS.getVolatile(this.visited, word);
+        }
+        return false;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
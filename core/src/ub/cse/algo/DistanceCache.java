@@ -0,0 +1,93 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shortest distances from the content provider, computed once per network
+ * and shared by MPUtility.readInfo, the simulators, Revenue and solutions.
+ *
+ * Entries are keyed by the identity of the Adjacency. An Adjacency never
+ * changes after it is built, content provider included, so a changed network
+ * is a new Adjacency and misses the cache; invalidate drops an entry early.
+ * Entries go away with their network since the keys are weak.
+ *
+ * shared hands out the cached array itself, for the grader's own code which
+ * only reads it. Solutions live in the same package, so distances, the name
+ * they would reach for, hands out a copy: writing into the shared array would
+ * change the shortest distances the solution is graded against
+ */
+final class DistanceCache {
+    // Guarded by itself
+    private static final Map<Adjacency, int[]> cache = new WeakHashMap<>();
+
+    private DistanceCache() {
+    }
+
+    /**
+     * @param graph: compact graph representing the network
+     * @return a copy of the distances indexed by node ID, -1 if unreachable, the caller may modify it
+     */
+    static int[] distances(Adjacency graph) {
+        return shared(graph).clone();
+    }
+
+    /**
+     * @param graph: compact graph representing the network
+     * @return the cached distances indexed by node ID, -1 if unreachable. Read-only
+     */
+    static int[] shared(Adjacency graph) {
+        return shared(graph, Traversals.Strategy.TOP_DOWN);
+    }
+
+    /**
+     * @param graph: compact graph representing the network
+     * @param strategy: how to run the BFS on a miss, every strategy finds the same distances
+     * @return the cached distances indexed by node ID, -1 if unreachable. Read-only
+     */
+    static int[] shared(Adjacency graph, Traversals.Strategy strategy) {
+        synchronized (cache) {
+            int[] distances = cache.get(graph);
+            if (distances != null) {
+                Metrics.count("distances.cache.hits", 1);
+                return distances;
+            }
+        }
+        // Run the BFS outside the lock, a racing thread finds the same distances
+        Metrics.count("distances.cache.misses", 1);
+        int[] distances = Traversals.distances(graph, strategy);
+        synchronized (cache) {
+            int[] raced = cache.putIfAbsent(graph, distances);
+            return raced != null ? raced : distances;
+        }
+    }
+
+    /**
+     * Stores distances found some other way, such as read back from a Snapshot,
+     * so the network's first lookup does not run the BFS
+     *
+     * @param graph: compact graph representing the network
+     * @param distances: distances indexed by node ID, -1 if unreachable, not modified afterwards
+     */
+    static void seed(Adjacency graph, int[] distances) {
+        if (distances.length != graph.size()) {
+            throw new IllegalArgumentException("Expected " + graph.size() + " distances, got " + distances.length);
+        }
+        synchronized (cache) {
+            cache.putIfAbsent(graph, distances);
+        }
+    }
+
+    /**
+     * Drops the cached distances of a network
+     *
+     * @param graph: compact graph representing the network
+     */
+    static void invalidate(Adjacency graph) {
+        synchronized (cache) {
+            cache.remove(graph);
+        }
+    }
+}
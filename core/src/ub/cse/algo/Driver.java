@@ -0,0 +1,237 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Properties;
+
+/**
+ * Class for running the grader. Will take in a command line argument specifying
+ * the number of testcases to run.
+ *
+ * The grader is shared by every problem. The Solution it runs is the one on the
+ * classpath, and the problem number comes from that module's problem.properties
+ * unless it is given with --problem.
+ */
+public class Driver { // testing in process! 
+
+    private static String filename;
+    private static int problem = 1;
+
+    public static void main(String[] args) {
+        Driver.problem = defaultProblem();
+        ArrayList<String> remaining = new ArrayList<>();
+        for (int i = 0; i < args.length; ++i) {
+            if (args[i].equals("--problem") && i + 1 < args.length) {
+                Driver.problem = Integer.parseInt(args[++i]);
+            } else {
+                remaining.add(args[i]);
+            }
+        }
+        args = remaining.toArray(new String[0]);
+
+        if (args.length < 1) {
+			System.out.println("Please provide the testcase filepath as a command line argument");
+			System.out.println("Options after it: --mapped to memory-map very large network files,");
+			System.out.println("--snapshot to reuse (or create) a binary snapshot of the parsed testcase");
+			System.out.println("--problem N to grade as problem N instead of the solution module's problem");
+			System.out.println("--metrics or --metrics-json to print the time and memory spent in every phase");
+			System.out.println("--trace <file> to record every packet leaving every router, see TraceReader");
+			System.out.println("Or score many testcases: --batch <directory or manifest> [--threads N] [--out summary.json]");
+			return;
+		}
+        if (args[0].equals("--batch")) {
+            BatchRunner.main(Driver.problem, Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+		Driver.filename= args[0];
+
+        // Optional flags after the filename
+        boolean mapped = false, snapshot = false, metricsJson = false;
+        Path trace = null;
+        for (int i = 1; i < args.length; ++i) {
+            if (args[i].equals("--mapped")) {
+                mapped = true;
+            } else if (args[i].equals("--snapshot")) {
+                snapshot = true;
+            } else if (args[i].equals("--metrics") || args[i].equals("--metrics-json")) {
+                metricsJson = args[i].equals("--metrics-json");
+                Metrics.enable();
+            } else if (args[i].equals("--trace") && i + 1 < args.length) {
+                trace = Paths.get(args[++i]);
+            } else {
+                System.out.println("Unknown option " + args[i]);
+                return;
+            }
+        }
+        
+        MPUtility mpu = new MPUtility(Driver.problem);
+        Info info;
+        if (snapshot) {
+            info = mpu.load(Driver.filename);
+        } else {
+            if (mapped) {
+                mpu.mapFile(Driver.filename);
+            } else {
+                mpu.readFile(Driver.filename);
+            }
+            info = mpu.readInfo(Driver.filename + "-info");
+        }
+ 
+		SolutionObject solObj = Driver.solve(info);
+		info.solutionObject = solObj;
+        
+        if (solObj.bandwidths == null || solObj.bandwidths.isEmpty()) {
+            solObj.bandwidths = info.bandwidths;
+        }
+
+        if(solObj == null){
+			System.out.println("null Solution Object returned");
+		} else if (solObj.paths == null) {
+			System.out.println("null paths returned");
+		} else if (solObj.paths.isEmpty()) {
+			System.out.println("Paths are empty");
+		} else {
+			float revenue = Driver.runHelper(info, solObj);
+
+			System.out.println("Your Solution");
+			System.out.println("=============================================");
+			System.out.println("Revenue: " + revenue);
+
+			if (trace != null) {
+				try {
+					Driver.trace(info, solObj, trace);
+				} catch (IOException e) {
+					System.out.println("Could not write the trace: " + e.getMessage());
+				}
+			}
+		}
+
+        if (Metrics.isEnabled()) {
+            System.out.println();
+            if (metricsJson) {
+                Metrics.printJson(System.out);
+            } else {
+                Metrics.printTable(System.out);
+            }
+        }
+	}
+	
+    /**
+     * This helper method will run the solution throught the simulator
+     * and return the revenue that the solution generates
+     *
+     * @param info: Info object containing parsed data
+     * @param solutionObject: The solution object to be calculated
+     * @return
+     */
+    static float runHelper(Info info, SolutionObject solutionObject) {
+        // Run the solution and get the paths, the event-driven simulator gives the same delays faster
+        HashMap<Integer, Integer> delays = Metrics.time("simulate",
+                () -> EventSimulator.run(info.graph, info.clients, solutionObject));
+        // Do the penalties need to be applied?
+        boolean pen_1 = info.problem == 3 || info.problem == 4;
+        boolean pen_2 = pen_1;
+        // Does the bandwidth penalty need to be applied
+        boolean pen_bandwidth = !info.bandwidths.equals(solutionObject.bandwidths);
+        // Calculate and return the revenue
+        return Metrics.time("revenue", () -> Revenue.revenue(info, solutionObject, delays, pen_1, pen_2, pen_bandwidth));
+    }
+
+    /**
+     * Same as runHelper(Info, SolutionObject) on the compact solution, recording
+     * the time spent simulating and scoring and the complaints in the evaluation
+     *
+     * @param info: Info object containing parsed data
+     * @param solutionObject: The solution object to be calculated
+     * @param evaluation: receives the revenue, complaint counts and timings
+     * @return the revenue the solution generates
+     */
+    static float runHelper(Info info, SolutionObject solutionObject, BatchRunner.Evaluation evaluation) {
+        long start = System.nanoTime();
+        CompactSolution solution = CompactSolution.from(info.clients, solutionObject);
+        int[] delays = EventSimulator.run(info.graph.adjacency, solution);
+        long simulated = System.nanoTime();
+
+        boolean pen_1 = info.problem == 3 || info.problem == 4;
+        boolean pen_2 = pen_1;
+        boolean pen_bandwidth = solution.bandwidthsChanged(info.bandwidths);
+        int[] complaintCounts = new int[2];
+        float revenue = Revenue.revenue(info, solution, delays, pen_1, pen_2, pen_bandwidth, complaintCounts);
+        long scored = System.nanoTime();
+
+        evaluation.revenue = revenue;
+        evaluation.complaints = complaintCounts[0];
+        evaluation.fccComplaints = complaintCounts[1];
+        evaluation.simulateNanos = simulated - start;
+        evaluation.revenueNanos = scored - simulated;
+        return revenue;
+    }
+
+    /**
+     * Simulates the solution again, recording every packet leaving every router
+     *
+     * @param info: Info object containing parsed data
+     * @param solutionObject: The solution object to trace
+     * @param path: the trace file to write
+     * @throws IOException if the trace can not be written
+     */
+    static void trace(Info info, SolutionObject solutionObject, Path path) throws IOException {
+        Adjacency graph = info.graph.adjacency;
+        CompactSolution solution = CompactSolution.from(info.clients, solutionObject);
+        TraceRecorder recorder = new TraceRecorder(path);
+        try (TraceRecorder trace = recorder) {
+            EventSimulator.run(graph, solution, DistanceCache.shared(graph), new EventSimulator.Scratch(graph), trace);
+        }
+        System.out.println("Trace: " + recorder.events() + " events in " + recorder.bytes() + " bytes written to " + path);
+    }
+
+    /**
+     * Runs the Solution found on the classpath, which comes from the problem's own module
+     *
+     * @param info: Info object containing parsed data
+     * @return the solution object it outputs
+     */
+    static SolutionObject solve(Info info) {
+        try {
+            return Metrics.time("solve", () -> {
+                Class<?> solution = Class.forName("ub.cse.algo.Solution");
+                Object student = solution.getConstructor(Info.class).newInstance(info);
+                return (SolutionObject) solution.getMethod("outputPaths").invoke(student);
+            });
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No ub.cse.algo.Solution on the classpath", e);
+        }
+    }
+
+    /**
+     * @return the problem number in the solution module's problem.properties, or 1 without one
+     */
+    static int defaultProblem() {
+        try (InputStream in = Driver.class.getResourceAsStream("problem.properties")) {
+            if (in != null) {
+                Properties properties = new Properties();
+                properties.load(in);
+                return Integer.parseInt(properties.getProperty("problem", "1").trim());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,51 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.LongHashSet;
+
+/**
+ * Hash set of the edges leaving high-degree nodes, so checking an edge is
+ * O(1) even at the content provider and other hubs. Nodes with at most
+ * MIN_DEGREE neighbors are cheaper to scan directly and are left out,
+ * which keeps the index small on the mostly sparse ISP networks
+ */
+final class EdgeIndex {
+    // Nodes with more neighbors than this are indexed
+    static final int MIN_DEGREE = 16;
+
+    private final LongHashSet edges;
+
+    /**
+     * @param graph: the network to index
+     */
+    EdgeIndex(Adjacency graph) {
+        long indexed = 0;
+        for (int node = 0; node < graph.size(); ++node) {
+            if (graph.degree(node) > MIN_DEGREE) {
+                indexed += graph.degree(node);
+            }
+        }
+        this.edges = new LongHashSet((int) Math.min(indexed, LongHashSet.MAX_EXPECTED));
+        for (int node = 0; node < graph.size(); ++node) {
+            if (graph.degree(node) > MIN_DEGREE) {
+                for (long e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; ++e) {
+                    this.edges.add(key(node, graph.target(e)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Only answers for nodes with more than MIN_DEGREE neighbors
+     *
+     * @param from: node whose neighbor list is searched
+     * @param to: node to look for
+     * @return true if the edge exists otherwise false
+     */
+    boolean contains(int from, int to) {
+        return this.edges.contains(key(from, to));
+    }
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+}
@@ -0,0 +1,141 @@
+package ub.cse.algo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Scores solutions to one testcase from any number of threads, for solvers
+ * that try many candidates.
+ *
+ * The evaluator keeps its own copy of the parsed input and never changes it
+ * or the candidates. Every worker thread keeps its own simulator scratch
+ * memory, so scoring a candidate only allocates what it returns and the
+ * flattened copy of the candidate. Scores are the ones runHelper prints
+ */
+class Evaluator implements AutoCloseable {
+    private final Info info;
+    private final int[] shortestDistances;
+    private final int[] originalBandwidths;
+    private final boolean penalties;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<EventSimulator.Scratch> scratch;
+
+    /**
+     * Score of one candidate
+     */
+    static class Score {
+        float revenue;
+        // Packet delays indexed by client slot, the order of info.clients
+        int[] delays;
+        int complaints;
+        int fccComplaints;
+    }
+
+    /**
+     * @param info: the parsed testcase, copied so later changes to it do not matter
+     */
+    Evaluator(Info info) {
+        this(info, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param info: the parsed testcase, copied so later changes to it do not matter
+     * @param threads: number of threads evaluateAll scores with
+     */
+    Evaluator(Info info, int threads) {
+        this(info, threads, PacketScheduler.Policy.STRICT_PRIORITY);
+    }
+
+    /**
+     * Scores as if routers forwarded packets in the order of another policy
+     *
+     * @param info: the parsed testcase, copied so later changes to it do not matter
+     * @param threads: number of threads evaluateAll scores with
+     * @param policy: order in which routers forward the packets waiting at them
+     */
+    Evaluator(Info info, int threads, PacketScheduler.Policy policy) {
+        this.info = (Info) info.clone();
+        Adjacency graph = this.info.graph.adjacency;
+        this.shortestDistances = DistanceCache.shared(graph);
+        this.originalBandwidths = new int[this.info.bandwidths.size()];
+        for (int node = 0; node < this.originalBandwidths.length; ++node) {
+            this.originalBandwidths[node] = this.info.bandwidths.get(node);
+        }
+        this.penalties = this.info.problem == 3 || this.info.problem == 4;
+        // Build the client index before the workers share the copy
+        ClientIndex clients = this.info.clientIndex();
+        this.pool = new ForkJoinPool(threads);
+        this.scratch = ThreadLocal.withInitial(() -> new EventSimulator.Scratch(graph, policy, clients));
+    }
+
+    /**
+     * Scores one candidate on the calling thread
+     *
+     * @param sol: the candidate, its missing bandwidths default to the input's
+     * @return the candidate's score
+     */
+    Score evaluate(SolutionObject sol) {
+        CompactSolution compact = compact(sol);
+        Score score = new Score();
+        score.delays = EventSimulator.run(this.info.graph.adjacency, compact, this.shortestDistances,
+                this.scratch.get());
+
+        int[] complaintCounts = new int[2];
+        boolean updated = !Arrays.equals(compact.bandwidths, this.originalBandwidths);
+        score.revenue = Revenue.revenue(this.info, this.shortestDistances, compact.bandwidths, score.delays,
+                this.penalties, this.penalties, updated, complaintCounts);
+        score.complaints = complaintCounts[0];
+        score.fccComplaints = complaintCounts[1];
+        return score;
+    }
+
+    /**
+     * Scores candidates in parallel
+     *
+     * @param candidates: the candidates to score
+     * @return their scores, in the same order
+     */
+    Score[] evaluateAll(List<SolutionObject> candidates) {
+        Score[] scores = new Score[candidates.size()];
+        try {
+            this.pool.submit(() -> IntStream.range(0, scores.length).parallel()
+                    .forEach(i -> scores[i] = evaluate(candidates.get(i)))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scoring candidates", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return scores;
+    }
+
+    /**
+     * Stops the worker threads
+     */
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Flattens a candidate without changing it, like runHelper a candidate
+     * without bandwidths keeps the input's
+     */
+    private CompactSolution compact(SolutionObject sol) {
+        if (sol.bandwidths != null && !sol.bandwidths.isEmpty()) {
+            return CompactSolution.from(this.info.clients, sol);
+        }
+        SolutionObject withBandwidths = new SolutionObject();
+        withBandwidths.paths = sol.paths;
+        withBandwidths.priorities = sol.priorities;
+        withBandwidths.bandwidths = this.info.bandwidths;
+        return CompactSolution.from(this.info.clients, withBandwidths);
+    }
+}
@@ -0,0 +1,289 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+import ub.cse.algo.util.RadixSort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Event-driven version of Simulator.run that produces the same delays.
+ *
+ * Simulator walks every remaining client on every tick. Here each router keeps
+ * a queue of the packets waiting at it, see PacketScheduler, and a tick only
+ * visits routers that have packets waiting. A router forwards its first packets
+ * up to its bandwidth, which with the strict priority order is what the sweep
+ * in Simulator.run works out to because routers never share bandwidth. A packet
+ * moved on a tick joins its next router's queue for the following tick.
+ *
+ * The one difference is a packet stuck at a router with no bandwidth: the
+ * tick-by-tick simulator never finishes, here it gets a delay of Integer.MAX_VALUE
+ */
+class EventSimulator {
+    /**
+     * Simulate the solution to find the delays to each
+     * Client and return them in a HashMap
+     *
+     * @param graph: Graph Object representing the network
+     * @param clientList: List of Client Objects
+     * @param sol: Solution to Simulate
+     * @return a map of Client IDs to packet delays
+     */
+    static HashMap<Integer, Integer> run(Graph graph, ArrayList<Client> clientList, SolutionObject sol) {
+        return run(graph.adjacency, clientList, sol, Traversals.Strategy.TOP_DOWN);
+    }
+
+    /**
+     * Same as run(Graph, ArrayList, SolutionObject) but directly on the compact
+     * graph and with a choice of BFS strategy for finding the shortest distances
+     *
+     * @param graph: compact graph representing the network
+     * @param clientList: List of Client Objects
+     * @param sol: Solution to Simulate
+     * @param strategy: how to run the BFS
+     * @return a map of Client IDs to packet delays
+     */
+    static HashMap<Integer, Integer> run(Adjacency graph, ArrayList<Client> clientList, SolutionObject sol,
+                                         Traversals.Strategy strategy) {
+        int[] delays = run(graph, CompactSolution.from(clientList, sol), shortestDistances(graph, strategy));
+        return CompactSolution.delaysById(clientList, delays);
+    }
+
+    /**
+     * Simulates a compact solution
+     *
+     * @param graph: compact graph representing the network
+     * @param sol: Solution to Simulate
+     * @return the packet delays indexed by client slot
+     */
+    static int[] run(Adjacency graph, CompactSolution sol) {
+        return run(graph, sol, shortestDistances(graph, Traversals.Strategy.TOP_DOWN));
+    }
+
+    /**
+     * Simulates a compact solution with routers forwarding packets in the order of another policy
+     *
+     * @param info: the parsed testcase, its clients are the slots
+     * @param sol: Solution to Simulate
+     * @param policy: order in which routers forward the packets waiting at them
+     * @return the packet delays indexed by client slot
+     */
+    static int[] run(Info info, CompactSolution sol, PacketScheduler.Policy policy) {
+        Adjacency graph = info.graph.adjacency;
+        return run(graph, sol, shortestDistances(graph, Traversals.Strategy.TOP_DOWN),
+                new Scratch(graph, policy, info.clientIndex()));
+    }
+
+    /**
+     * Simulates a compact solution with already known shortest distances
+     *
+     * @param graph: compact graph representing the network
+     * @param sol: Solution to Simulate
+     * @param shortestDistances: shortest distance from the content provider, indexed by node ID
+     * @return the packet delays indexed by client slot
+     */
+    static int[] run(Adjacency graph, CompactSolution sol, int[] shortestDistances) {
+        return run(graph, sol, shortestDistances, new Scratch(graph));
+    }
+
+    /**
+     * Simulates a compact solution reusing the working memory of earlier runs
+     *
+     * @param graph: compact graph representing the network
+     * @param sol: Solution to Simulate
+     * @param shortestDistances: shortest distance from the content provider, indexed by node ID
+     * @param scratch: working memory for the graph, used by one run at a time, it picks the policy
+     * @return the packet delays indexed by client slot
+     */
+    static int[] run(Adjacency graph, CompactSolution sol, int[] shortestDistances, Scratch scratch) {
+        return run(graph, sol, shortestDistances, scratch, null);
+    }
+
+    /**
+     * Simulates a compact solution, recording every packet leaving every router
+     *
+     * @param graph: compact graph representing the network
+     * @param sol: Solution to Simulate
+     * @param shortestDistances: shortest distance from the content provider, indexed by node ID
+     * @param scratch: working memory for the graph, used by one run at a time, it picks the policy
+     * @param trace: receives the events, or null to record nothing
+     * @return the packet delays indexed by client slot
+     */
+    static int[] run(Adjacency graph, CompactSolution sol, int[] shortestDistances, Scratch scratch,
+                     TraceRecorder trace) {
+        int packets = sol.slots();
+        if (trace != null) {
+            trace.begin(graph.size(), packets);
+        }
+        int[] delays = new int[packets];
+        scratch.ensurePackets(packets);
+        // Current index into the path pool of every slot's packet
+        int[] locations = scratch.locations;
+
+        // Waiting packets per router, and the routers with packets waiting
+        PacketScheduler scheduler = scratch.scheduler;
+        scheduler.reset(sol, shortestDistances);
+        int[] active = scratch.active;
+        int activeCount = 0;
+
+        for (int slot = 0; slot < packets; ++slot) {
+            int start = sol.pathOffsets[slot];
+
+            // Make sure the path is valid. Starting with the ISP and ending with the client
+            if (sol.pathLength(slot) == 0 || sol.pathPool[start] != graph.contentProvider()) {
+                delays[slot] = Integer.MAX_VALUE;
+                continue;
+            }
+            locations[slot] = start;
+            if (sol.pathLength(slot) == 1) {
+                delays[slot] = arrive(sol, slot, 0, shortestDistances);
+                continue;
+            }
+            activeCount = enqueue(scheduler, active, activeCount, sol.pathPool, start);
+        }
+
+        int[] moved = scratch.moved;
+        int tick = 1;
+        for (; activeCount > 0; ++tick) {
+            int movedCount = 0;
+            int stillActive = 0;
+            for (int a = 0; a < activeCount; ++a) {
+                int router = active[a];
+                int bandwidth = sol.bandwidths[router];
+                if (bandwidth <= 0) {
+                    // Nothing here will ever move again
+                    for (int slot = scheduler.poll(router); slot >= 0; slot = scheduler.poll(router)) {
+                        delays[slot] = Integer.MAX_VALUE;
+                        if (trace != null) {
+                            trace.record(tick, router, slot, TraceRecorder.STALLED);
+                        }
+                    }
+                    continue;
+                }
+
+                // Forward the first packets in the router's order up to its bandwidth
+                for (int sent = 0; sent < bandwidth && !scheduler.isEmpty(router); ++sent) {
+                    int slot = scheduler.poll(router);
+                    int next = sol.pathPool[++locations[slot]];
+                    if (!graph.hasEdge(next, router)) {
+                        delays[slot] = Integer.MAX_VALUE;
+                        if (trace != null) {
+                            trace.record(tick, router, slot, TraceRecorder.DROPPED);
+                        }
+                        continue;
+                    }
+                    if (trace != null) {
+                        trace.record(tick, router, slot, TraceRecorder.FORWARDED);
+                    }
+                    if (locations[slot] == sol.pathOffsets[slot + 1] - 1) {
+                        delays[slot] = arrive(sol, slot, tick, shortestDistances);
+                    } else {
+                        moved[movedCount++] = slot;
+                    }
+                }
+                if (!scheduler.isEmpty(router)) {
+                    active[stillActive++] = router;
+                }
+            }
+            activeCount = stillActive;
+
+            // Packets forwarded this tick wait at their next router from the next tick on
+            for (int m = 0; m < movedCount; ++m) {
+                activeCount = enqueue(scheduler, active, activeCount, sol.pathPool, locations[moved[m]]);
+            }
+        }
+
+        Metrics.count("simulate.ticks", tick - 1);
+        return delays;
+    }
+
+    /**
+     * Looks up the shortest distances, timed as their own phase since a
+     * network seen for the first time needs a BFS
+     */
+    private static int[] shortestDistances(Adjacency graph, Traversals.Strategy strategy) {
+        return Metrics.time("simulate.bfs", () -> DistanceCache.shared(graph, strategy));
+    }
+
+    /**
+     * Orders the slots by priority in descending order, ties keep their slot order
+     * like the stable sort in Simulator.run
+     *
+     * @param priorities: priority of every slot
+     * @return the slots in rank order
+     */
+    static int[] rankOrder(int[] priorities) {
+        // ~priority sorts descending priorities ascending, and the radix sort is stable
+        int[] keys = new int[priorities.length];
+        for (int slot = 0; slot < keys.length; ++slot) {
+            keys[slot] = ~priorities[slot];
+        }
+        return RadixSort.order(keys);
+    }
+
+    /**
+     * Adds a packet to a router's queue, marking the router active if it was idle
+     *
+     * @param position: index into the path pool of the router the packet waits at
+     * @return the new number of active routers
+     */
+    private static int enqueue(PacketScheduler scheduler, int[] active, int activeCount, int[] pathPool,
+                               int position) {
+        int router = pathPool[position];
+        if (scheduler.isEmpty(router)) {
+            active[activeCount++] = router;
+        }
+        scheduler.add(position);
+        return activeCount;
+    }
+
+    /**
+     * Finds the delay of a packet that reached the end of its path
+     *
+     * @return the tick it arrived on, or Integer.MAX_VALUE if the path was not valid
+     */
+    private static int arrive(CompactSolution sol, int slot, int tick, int[] shortestDistances) {
+        int client = sol.clientIds[slot];
+        int location = sol.pathLength(slot) - 1;
+        if (sol.pathPool[sol.pathOffsets[slot + 1] - 1] == client && location >= shortestDistances[client]) {
+            return tick;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Working memory of a simulation, kept between runs on the same network
+     * so scoring many solutions does not allocate the router queues each
+     * time. Every queue is empty again when a run returns
+     */
+    static final class Scratch {
+        private final PacketScheduler scheduler;
+        private final int[] active;
+        private int[] locations = new int[0];
+        private int[] moved = new int[0];
+
+        /**
+         * @param graph: the network the runs simulate, routers forward by strict priority
+         */
+        Scratch(Adjacency graph) {
+            this(graph, PacketScheduler.Policy.STRICT_PRIORITY, null);
+        }
+
+        /**
+         * @param graph: the network the runs simulate
+         * @param policy: order in which routers forward the packets waiting at them
+         * @param clients: the clients, only needed for EARLIEST_DEADLINE
+         */
+        Scratch(Adjacency graph, PacketScheduler.Policy policy, ClientIndex clients) {
+            this.scheduler = new PacketScheduler(graph, policy, clients);
+            this.active = new int[graph.size()];
+        }
+
+        private void ensurePackets(int packets) {
+            if (this.locations.length < packets) {
+                this.locations = new int[packets];
+                this.moved = new int[packets];
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ub.cse.algo;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Object to represent a graph. Key is the node ID
+ * and the Value is the list the node's neighbors.
+ * The Content Provider ID is also stored here
+ *
+ * The network itself lives in an Adjacency (a CsrGraph, or a MappedGraph
+ * for very large inputs), this class is only a read-only map view of it
+ * kept for compatibility. Every call to get builds a fresh list, so hot
+ * loops should use adjacency directly
+ */
+public class Graph extends AbstractMap<Integer, ArrayList<Integer>> implements Serializable {
+    int contentProvider;
+    // The compact representation that traversals and the simulator run on
+    final Adjacency adjacency;
+
+    /**
+     * @param adjacency: The network in compact form
+     */
+    Graph(Adjacency adjacency) {
+        this.contentProvider = adjacency.contentProvider();
+        this.adjacency = adjacency;
+    }
+
+    /**
+     * @param contentProvider: The ID of the content provider
+     * @param graph: The graph represented as a hashmap
+     */
+    public Graph (int contentProvider, HashMap<Integer, ArrayList<Integer>> graph){
+        this(CsrGraph.fromMap(contentProvider, graph));
+    }
+
+    @Override
+    public int size() {
+        return this.adjacency.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && (Integer) key >= 0 && (Integer) key < this.adjacency.size();
+    }
+
+    @Override
+    public ArrayList<Integer> get(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        int node = (Integer) key;
+        ArrayList<Integer> neighbors = new ArrayList<>(this.adjacency.degree(node));
+        for (long e = this.adjacency.edgeStart(node), end = this.adjacency.edgeEnd(node); e < end; ++e) {
+            neighbors.add(this.adjacency.target(e));
+        }
+        return neighbors;
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new NodeIterator<Integer>() {
+                    @Override
+                    Integer at(int node) {
+                        return node;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return Graph.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, ArrayList<Integer>>> entrySet() {
+        return new AbstractSet<Entry<Integer, ArrayList<Integer>>>() {
+            @Override
+            public Iterator<Entry<Integer, ArrayList<Integer>>> iterator() {
+                return new NodeIterator<Entry<Integer, ArrayList<Integer>>>() {
+                    @Override
+                    Entry<Integer, ArrayList<Integer>> at(int node) {
+                        return new SimpleImmutableEntry<>(node, get(node));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Graph.this.size();
+            }
+        };
+    }
+
+    /**
+     * The graph can not be modified, so the clone shares this instance
+     *
+     * @return this graph
+     */
+    @Override
+    public Graph clone() {
+        return this;
+    }
+
+    /**
+     * Iterates over the node IDs in ascending order
+     */
+    private abstract class NodeIterator<T> implements Iterator<T> {
+        private int next = 0;
+
+        abstract T at(int node);
+
+        @Override
+        public boolean hasNext() {
+            return this.next < Graph.this.adjacency.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return at(this.next++);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package ub.cse.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Simulation state that is updated in place when one client's path or
+ * priority, or one router's bandwidth, changes, for local search solvers.
+ *
+ * A router forwards its best ranked waiting packets up to its bandwidth, so a
+ * packet is never held up by a worse ranked one. Taking the packets from best
+ * to worst rank, each one leaves every router on the first tick from its
+ * arrival on where fewer than bandwidth better ranked packets leave, which
+ * gives exactly the delays of EventSimulator. Every (router, tick) cell
+ * remembers the packets that leave on it and the packets that wait through
+ * it. After a change only the packets whose waits cover a cell that changed
+ * are placed again, in rank order, and they pass their own changes on.
+ *
+ * Routers with enough bandwidth for every packet never hold one up and keep no
+ * cells. Changing a router's bandwidth looks through every path for the
+ * packets that go through it.
+ * Revenue is recomputed from the delays with the allocation-free Revenue
+ * kernel, so it is bit-identical to scoring the solution from scratch
+ */
+class IncrementalSimulator {
+    private final Info info;
+    private final Adjacency graph;
+    private final int[] shortestDistances;
+    private final int packets;
+
+    // Client ID of every slot, and the slot of every client node
+    private final int[] clientIds;
+    private final ClientIndex clients;
+    // Current solution: paths by slot, priorities by slot and bandwidths by node
+    private final int[][] paths;
+    private final int[] priorities;
+    private final int[] bandwidths;
+    // Number of nodes whose bandwidth differs from the input's
+    private int changedBandwidths;
+
+    // Rank order key of every slot (~priority, slot), and the key its cells were placed with
+    private final long[] keys;
+    private final long[] placedKeys;
+    // Placement of every slot: ticks it became ready at and left every router on its path
+    private final int[][] readies;
+    private final int[][] departs;
+    // Number of routers the slot's packet left, the rest of the path was never reached
+    private final int[] hops;
+    private final int[] delays;
+
+    private final HashMap<Long, Cell> cells = new HashMap<>();
+
+    // Slots waiting to be placed again, by rank
+    private final PriorityQueue<Long> pending = new PriorityQueue<>();
+    private final boolean[] dirty;
+    // Slots placed again by the last change
+    private int affected;
+
+    /**
+     * Simulates the solution from scratch
+     *
+     * @param info: the parsed testcase, its clients are the slots
+     * @param sol: the solution to simulate
+     */
+    IncrementalSimulator(Info info, SolutionObject sol) {
+        this.info = info;
+        this.graph = info.graph.adjacency;
+        this.shortestDistances = DistanceCache.shared(this.graph);
+        CompactSolution compact = CompactSolution.from(info.clients, sol);
+        this.packets = compact.slots();
+
+        this.clientIds = compact.clientIds;
+        this.clients = info.clientIndex();
+        this.paths = new int[this.packets][];
+        for (int slot = 0; slot < this.packets; ++slot) {
+            this.paths[slot] = Arrays.copyOfRange(compact.pathPool, compact.pathOffsets[slot], compact.pathOffsets[slot + 1]);
+        }
+        this.priorities = compact.priorities;
+        this.bandwidths = compact.bandwidths;
+        for (int node = 0; node < this.bandwidths.length; ++node) {
+            if (node >= info.bandwidths.size() || this.bandwidths[node] != info.bandwidths.get(node)) {
+                this.changedBandwidths++;
+            }
+        }
+
+        this.keys = new long[this.packets];
+        this.placedKeys = new long[this.packets];
+        this.readies = new int[this.packets][];
+        this.departs = new int[this.packets][];
+        this.hops = new int[this.packets];
+        this.delays = new int[this.packets];
+        this.dirty = new boolean[this.packets];
+
+        // Placing every packet in rank order is the full simulation
+        for (int slot = 0; slot < this.packets; ++slot) {
+            this.keys[slot] = key(this.priorities[slot], slot);
+            this.placedKeys[slot] = this.keys[slot];
+            this.readies[slot] = new int[Math.max(0, this.paths[slot].length - 1)];
+            this.departs[slot] = new int[this.readies[slot].length];
+        }
+        for (int slot : EventSimulator.rankOrder(this.priorities)) {
+            place(slot, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Changes the path to one client
+     *
+     * @param clientId: ID of the client
+     * @param path: the new path, from the content provider to the client
+     * @return the number of packets placed again
+     */
+    int setPath(int clientId, List<Integer> path) {
+        int slot = slot(clientId);
+        release(slot);
+        this.paths[slot] = new int[path.size()];
+        for (int i = 0; i < path.size(); ++i) {
+            this.paths[slot][i] = path.get(i);
+        }
+        this.readies[slot] = new int[Math.max(0, path.size() - 1)];
+        this.departs[slot] = new int[this.readies[slot].length];
+        this.hops[slot] = 0;
+        markDirty(slot);
+        return update();
+    }
+
+    /**
+     * Changes the priority of one client
+     *
+     * @param clientId: ID of the client
+     * @param priority: the new priority
+     * @return the number of packets placed again
+     */
+    int setPriority(int clientId, int priority) {
+        int slot = slot(clientId);
+        this.priorities[slot] = priority;
+        this.keys[slot] = key(priority, slot);
+        markDirty(slot);
+        return update();
+    }
+
+    /**
+     * Changes the bandwidth of one router
+     *
+     * @param node: ID of the router
+     * @param bandwidth: the new bandwidth
+     * @return the number of packets placed again
+     */
+    int setBandwidth(int node, int bandwidth) {
+        // Every packet whose path forwards through the router is placed again
+        // from scratch, whether the router keeps cells may change with it
+        ArrayList<Integer> through = new ArrayList<>();
+        for (int slot = 0; slot < this.packets; ++slot) {
+            for (int i = 0; i < this.paths[slot].length - 1; ++i) {
+                if (this.paths[slot][i] == node) {
+                    through.add(slot);
+                    break;
+                }
+            }
+        }
+        for (int slot : through) {
+            release(slot);
+        }
+
+        boolean wasOriginal = this.bandwidths[node] == this.info.bandwidths.get(node);
+        boolean isOriginal = bandwidth == this.info.bandwidths.get(node);
+        this.changedBandwidths += (wasOriginal ? 1 : 0) - (isOriginal ? 1 : 0);
+        this.bandwidths[node] = bandwidth;
+        for (int slot : through) {
+            markDirty(slot);
+        }
+        return update();
+    }
+
+    /**
+     * @param clientId: ID of the client
+     * @return the current delay of the client's packet
+     */
+    int delay(int clientId) {
+        return this.delays[slot(clientId)];
+    }
+
+    /**
+     * @return the current delays indexed by client slot, a copy
+     */
+    int[] delays() {
+        return this.delays.clone();
+    }
+
+    /**
+     * @return the number of packets placed again by the last change
+     */
+    int affected() {
+        return this.affected;
+    }
+
+    /**
+     * @return the revenue of the current solution, with the penalties of the testcase's problem
+     */
+    float revenue() {
+        boolean penalties = this.info.problem == 3 || this.info.problem == 4;
+        return Revenue.revenue(this.info, this.bandwidths, this.delays, penalties, penalties,
+                this.changedBandwidths > 0, null);
+    }
+
+    /**
+     * @return how far the current solution is from every edge where its revenue changes
+     */
+    Sensitivity sensitivity() {
+        boolean penalties = this.info.problem == 3 || this.info.problem == 4;
+        return new Sensitivity(this.info, this.shortestDistances, this.bandwidths, this.delays, penalties, penalties,
+                this.changedBandwidths > 0);
+    }
+
+    /**
+     * @return the current solution
+     */
+    SolutionObject toSolutionObject() {
+        SolutionObject sol = new SolutionObject();
+        for (int slot = 0; slot < this.packets; ++slot) {
+            if (this.paths[slot].length > 0) {
+                ArrayList<Integer> path = new ArrayList<>(this.paths[slot].length);
+                for (int node : this.paths[slot]) {
+                    path.add(node);
+                }
+                sol.paths.put(this.clientIds[slot], path);
+            }
+            sol.priorities.put(this.clientIds[slot], this.priorities[slot]);
+        }
+        sol.bandwidths = new ArrayList<>(this.bandwidths.length);
+        for (int bandwidth : this.bandwidths) {
+            sol.bandwidths.add(bandwidth);
+        }
+        return sol;
+    }
+
+    /**
+     * Places the pending packets again, best rank first. When a packet is
+     * placed every better ranked packet is final, since packets only become
+     * pending through changes made by better ranked ones
+     *
+     * @return the number of packets placed again
+     */
+    private int update() {
+        this.affected = 0;
+        while (!this.pending.isEmpty()) {
+            int slot = (int) (long) this.pending.poll();
+            this.dirty[slot] = false;
+            this.affected++;
+
+            // Packets ranked after either the old or the new key may see a difference
+            long threshold = Math.min(this.placedKeys[slot], this.keys[slot]);
+            if (this.placedKeys[slot] == this.keys[slot] && unchanged(slot)) {
+                continue;
+            }
+            release(slot, threshold);
+            place(slot, threshold);
+        }
+        return this.affected;
+    }
+
+    /**
+     * Works out a packet's placement and delay without recording them
+     *
+     * @return true if both are the same as the recorded ones
+     */
+    private boolean unchanged(int slot) {
+        int[] path = this.paths[slot];
+        if (!startsValid(path)) {
+            return this.hops[slot] == 0 && this.delays[slot] == Integer.MAX_VALUE;
+        }
+        int ready = 1;
+        int depart = 0;
+        for (int hop = 0; hop < path.length - 1; ++hop) {
+            int router = path[hop];
+            if (this.bandwidths[router] <= 0) {
+                return hop == this.hops[slot] && this.delays[slot] == Integer.MAX_VALUE;
+            }
+            depart = earliestDeparture(slot, router, ready);
+            if (hop >= this.hops[slot] || this.readies[slot][hop] != ready || this.departs[slot][hop] != depart) {
+                return false;
+            }
+            if (!this.graph.hasEdge(path[hop + 1], router)) {
+                return hop + 1 == this.hops[slot] && this.delays[slot] == Integer.MAX_VALUE;
+            }
+            ready = depart + 1;
+        }
+        // Reached the end of the path
+        return this.hops[slot] == path.length - 1 && this.delays[slot] == arrive(slot, depart);
+    }
+
+    /**
+     * Records a packet's placement on every router it reaches and finds its delay
+     *
+     * @param threshold: packets ranked after this key are made pending by the cells it takes
+     */
+    private void place(int slot, long threshold) {
+        int[] path = this.paths[slot];
+        this.placedKeys[slot] = this.keys[slot];
+        this.hops[slot] = 0;
+        // Make sure the path is valid. Starting with the ISP and ending with the client
+        if (!startsValid(path)) {
+            this.delays[slot] = Integer.MAX_VALUE;
+            return;
+        }
+        if (path.length == 1) {
+            this.delays[slot] = arrive(slot, 0);
+            return;
+        }
+
+        int ready = 1;
+        for (int hop = 0; hop < path.length - 1; ++hop) {
+            int router = path[hop];
+            if (this.bandwidths[router] <= 0) {
+                // Stuck at a router that never forwards anything
+                this.delays[slot] = Integer.MAX_VALUE;
+                return;
+            }
+            int depart = earliestDeparture(slot, router, ready);
+            if (blocks(this.bandwidths[router])) {
+                for (int tick = ready; tick <= depart; ++tick) {
+                    cell(router, tick).waiting.add(slot);
+                }
+                Cell leaving = cell(router, depart);
+                leaving.leaving.add(slot);
+                touch(leaving, slot, threshold);
+            }
+            this.readies[slot][hop] = ready;
+            this.departs[slot][hop] = depart;
+            this.hops[slot] = hop + 1;
+
+            // The bandwidth is used even if the next hop is not a neighbor
+            if (!this.graph.hasEdge(path[hop + 1], router)) {
+                this.delays[slot] = Integer.MAX_VALUE;
+                return;
+            }
+            if (hop + 1 == path.length - 1) {
+                this.delays[slot] = arrive(slot, depart);
+                return;
+            }
+            ready = depart + 1;
+        }
+    }
+
+    /**
+     * Removes a packet's placement, making pending the packets ranked after its key
+     */
+    private void release(int slot) {
+        release(slot, this.placedKeys[slot]);
+    }
+
+    private void release(int slot, long threshold) {
+        int[] path = this.paths[slot];
+        for (int hop = 0; hop < this.hops[slot]; ++hop) {
+            int router = path[hop];
+            for (int tick = this.readies[slot][hop]; tick <= this.departs[slot][hop]; ++tick) {
+                Cell cell = this.cells.get(cellKey(router, tick));
+                if (cell == null) {
+                    continue;
+                }
+                cell.waiting.remove(slot);
+                if (cell.leaving.remove(slot)) {
+                    touch(cell, slot, threshold);
+                }
+            }
+        }
+        this.hops[slot] = 0;
+    }
+
+    /**
+     * Makes pending every packet ranked after the threshold that waits through a changed cell
+     */
+    private void touch(Cell cell, int slot, long threshold) {
+        for (int i = 0; i < cell.waiting.size; ++i) {
+            int other = cell.waiting.values[i];
+            if (other != slot && this.keys[other] > threshold) {
+                markDirty(other);
+            }
+        }
+    }
+
+    /**
+     * @return the first tick from ready on where fewer than bandwidth better ranked packets leave the router
+     */
+    private int earliestDeparture(int slot, int router, int ready) {
+        int bandwidth = this.bandwidths[router];
+        if (!blocks(bandwidth)) {
+            return ready;
+        }
+        int tick = ready;
+        while (true) {
+            Cell cell = this.cells.get(cellKey(router, tick));
+            if (cell == null || cell.leavingBefore(this.keys, this.keys[slot]) < bandwidth) {
+                return tick;
+            }
+            tick++;
+        }
+    }
+
+    /**
+     * @return the delay of a packet that reached the end of its path, Integer.MAX_VALUE if the path was not valid
+     */
+    private int arrive(int slot, int tick) {
+        int[] path = this.paths[slot];
+        int client = this.clientIds[slot];
+        if (path[path.length - 1] == client && path.length - 1 >= this.shortestDistances[client]) {
+            return tick;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private boolean startsValid(int[] path) {
+        return path.length > 0 && path[0] == this.graph.contentProvider();
+    }
+
+    /**
+     * @return true if a router with this bandwidth can hold up a packet
+     */
+    private boolean blocks(int bandwidth) {
+        return bandwidth > 0 && bandwidth < this.packets;
+    }
+
+    private void markDirty(int slot) {
+        if (!this.dirty[slot]) {
+            this.dirty[slot] = true;
+            this.pending.add(this.keys[slot]);
+        }
+    }
+
+    private int slot(int clientId) {
+        int slot = this.clients.slot(clientId);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Node " + clientId + " is not a client");
+        }
+        return slot;
+    }
+
+    private Cell cell(int router, int tick) {
+        return this.cells.computeIfAbsent(cellKey(router, tick), key -> new Cell());
+    }
+
+    private static long cellKey(int router, int tick) {
+        return ((long) router << 32) | tick;
+    }
+
+    /**
+     * Rank order key, smaller is better: higher priority first, then lower slot like the stable sort
+     */
+    private static long key(int priority, int slot) {
+        return ((long) ~priority << 32) | slot;
+    }
+
+    /**
+     * Packets on one router at one tick
+     */
+    private static final class Cell {
+        // Packets that leave the router on this tick
+        final Slots leaving = new Slots();
+        // Packets that are at the router on this tick, leaving or not
+        final Slots waiting = new Slots();
+
+        /**
+         * @return the number of leaving packets ranked before the key
+         */
+        int leavingBefore(long[] keys, long key) {
+            int count = 0;
+            for (int i = 0; i < this.leaving.size; ++i) {
+                if (keys[this.leaving.values[i]] < key) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Small unordered set of slots
+     */
+    private static final class Slots {
+        int[] values = new int[2];
+        int size;
+
+        void add(int slot) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = slot;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < this.size; ++i) {
+                if (this.values[i] == slot) {
+                    this.values[i] = this.values[--this.size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -21,11 +21,15 @@ class Info implements Serializable {
     found by using the lengths of the BFS paths
      */
     HashMap<Integer, Integer> shortestDelays;
+    // The clients by node ID and as one array per field, see clientIndex()
+    ClientIndex clientIndex;
     /*
     Object to store the node bandwidths and paths to
     the clients found to be the optimal solution
      */
     SolutionObject solutionObject;
+    // The problem number the input was parsed for
+    int problem;
     // Multipliers parsed from the input
     float rho1;
     float rho2;
@@ -60,7 +64,7 @@ class Info implements Serializable {
      */
     @Override
     protected Object clone() {
-        Info clone = new Info((Graph) this.graph.clone());
+        Info clone = new Info(this.graph.clone());
         clone.bandwidths = (ArrayList<Integer>) this.bandwidths.clone();
         clone.clients = (ArrayList<Client>) this.clients.clone();
         clone.shortestDelays = (HashMap<Integer, Integer>) this.shortestDelays.clone();
@@ -70,6 +74,22 @@ class Info implements Serializable {
         clone.fccFine = this.fccFine;
         clone.costBandwidth = this.costBandwidth;
         clone.solutionObject = this.solutionObject;
+        clone.problem = this.problem;
+        clone.clientIndex = this.clientIndex;
         return clone;
     }
+
+    /**
+     * The parser builds the index, an Info put together by hand gets one on first use.
+     * It is rebuilt whenever this.clients no longer holds the same clients in the
+     * same order, which costs a pass over the list per call
+     *
+     * @return the index of this.clients
+     */
+    ClientIndex clientIndex() {
+        if (this.clientIndex == null || !this.clientIndex.matches(this.clients)) {
+            this.clientIndex = new ClientIndex(this.clients, this.graph.size());
+        }
+        return this.clientIndex;
+    }
 }
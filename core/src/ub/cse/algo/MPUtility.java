@@ -0,0 +1,239 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+import ub.cse.algo.util.TokenReader;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Class used for parsing the Problem input files
+ */
+public class MPUtility {
+    // Graph representing the network
+    private Graph graph;
+    // The problem number used for parsing
+    private int problem;
+
+    /**
+     * Basic Constructor
+     *
+     * @param problem: problem number
+     */
+    MPUtility (int problem) {
+        super();
+        this.problem = problem;
+    }
+
+    /**
+     * Reads the network from the input file and
+     * creates the Graph object representing the network
+     *
+     * @param filename: the name of the input file
+     * @return a Graph object representing the network
+     */
+    public Graph readFile(String filename) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(0, 0);
+        int contentProvider = 0;
+
+        // Read and parse the file
+        Metrics.Timer timer = Metrics.time("parse.network");
+        try (TokenReader reader = new TokenReader(filename)) {
+            // Get the Content Provider
+            contentProvider = reader.nextInt();
+            reader.nextLine();
+
+            // For every line in the file
+            while (reader.hasNextLine()) {
+                // Add the node's neighbors and move on to the next node
+                while (!reader.endOfLine()) {
+                    builder.addNeighbor(reader.nextInt());
+                }
+                reader.nextLine();
+                builder.endNode();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            timer.close();
+        }
+
+        this.graph = new Graph(builder.build(contentProvider));
+        Metrics.count("network.nodes", this.graph.size());
+        Metrics.count("network.links", this.graph.adjacency.edgeCount());
+        return this.graph;
+    }
+
+    /**
+     * Memory-maps the network file and parses it in parallel into off-heap
+     * arrays instead of reading it onto the heap. Meant for topologies too
+     * large to hold comfortably as a CsrGraph
+     *
+     * @param filename: the name of the input file
+     * @return a Graph object representing the network
+     */
+    public Graph mapFile(String filename) {
+        Adjacency adjacency;
+        try {
+            adjacency = Metrics.time("parse.network", () -> MappedGraph.load(filename));
+        } catch (IOException e) {
+            e.printStackTrace();
+            adjacency = new CsrGraph(0, new int[1], new int[0]);
+        }
+
+        this.graph = new Graph(adjacency);
+        Metrics.count("network.nodes", this.graph.size());
+        Metrics.count("network.links", adjacency.edgeCount());
+        return this.graph;
+    }
+
+    /**
+     * Parses the input file to create the info object
+     * to be passed to the solutions
+     *
+     * @param filename: the name of the input file
+     * @return Info object containing all the problem data
+     */
+    public Info readInfo(String filename) {
+        Info info = new Info(this.graph);
+        info.problem = this.problem;
+        info.bandwidths.ensureCapacity(this.graph.size());
+        // Read and parse the file
+        Metrics.Timer timer = Metrics.time("parse.info");
+        try (TokenReader reader = new TokenReader(filename)) {
+            // Parse network information based on problem
+            if (this.problem == 3 || this.problem == 4) {
+                info.rho1 = nextFloatLine(reader);
+                info.rho2 = nextFloatLine(reader);
+                info.lawsuit = nextFloatLine(reader);
+                info.fccFine = nextFloatLine(reader);
+            }
+            if (this.problem >= 3 && this.problem <= 5) {
+                info.costBandwidth = nextFloatLine(reader);
+            }
+            for (int id = 0; reader.hasNextLine(); ++id) {
+                boolean isClient = false;
+                int bandwidth = 0;
+                float alpha = 0f;
+                int payment = 0;
+                float beta = Float.POSITIVE_INFINITY;
+                boolean isFcc = false;
+                boolean isRural = false;
+
+                // Parse the columns this problem uses and skip the rest
+                for (int column = 0; !reader.endOfLine(); ++column) {
+                    switch (column) {
+                        case Globals.IS_CLIENT:
+                            isClient = reader.nextInt() == 1;
+                            break;
+                        case Globals.BANDWIDTHS:
+                            bandwidth = reader.nextInt();
+                            break;
+                        case Globals.ALPHAS:
+                            alpha = reader.nextFloat();
+                            break;
+                        case Globals.PAYMENTS:
+                            payment = reader.nextInt();
+                            break;
+                        case Globals.BETAS:
+                            if (this.problem == 3 || this.problem == 4) {
+                                beta = reader.nextFloat();
+                                beta = (beta >= 1) ? beta : Float.POSITIVE_INFINITY;
+                            } else {
+                                reader.skipToken();
+                            }
+                            break;
+                        case Globals.IS_FCC:
+                            if (this.problem == 3 || this.problem == 4) {
+                                isFcc = reader.nextInt() == 1;
+                            } else {
+                                reader.skipToken();
+                            }
+                            break;
+                        case Globals.IS_RURAL:
+                            if (this.problem == 4) {
+                                isRural = reader.nextInt() == 1;
+                            } else {
+                                reader.skipToken();
+                            }
+                            break;
+                        default:
+                            reader.skipToken();
+                    }
+                }
+                reader.nextLine();
+
+                // Parse this Node's bandwidth
+                bandwidth = (bandwidth == -1) ? Integer.MAX_VALUE : bandwidth;
+
+                // This Node is a client
+                if (isClient) {
+                    alpha = (alpha >= 1) ? alpha : Float.POSITIVE_INFINITY;
+
+                    // If this is a rural client then the alpha is set to infinity
+                    if (isRural) {
+                        alpha = Float.POSITIVE_INFINITY;
+                    }
+
+                    info.clients.add(new Client(id, alpha, beta, payment, isRural, isFcc));
+                }
+                info.bandwidths.add(bandwidth);
+            }
+            info.clientIndex = new ClientIndex(info.clients, this.graph.size());
+
+            // Find the shortest delays
+            info.shortestDelays = Metrics.time("parse.info.bfs", () -> Traversals.bfs(info.graph, info.clients));
+            Metrics.count("clients", info.clients.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            timer.close();
+        }
+
+        return info;
+    }
+
+    /**
+     * Loads a testcase, reusing its binary snapshot when one is current and
+     * otherwise parsing the text files and writing a fresh snapshot for next time
+     *
+     * @param filename: the name of the network input file, the info file is filename + "-info"
+     * @return Info object containing all the problem data
+     */
+    public Info load(String filename) {
+        try {
+            Info info = Snapshot.read(this.problem, filename);
+            if (info != null) {
+                this.graph = info.graph;
+                return info;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        // Fall back to the text files
+        readFile(filename);
+        Info info = readInfo(filename + "-info");
+        if (new File(filename).isFile() && new File(filename + "-info").isFile()) {
+            try {
+                Snapshot.write(info, this.problem, filename);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Reads a line holding a single float
+     *
+     * @param reader: reader positioned at the start of the line
+     * @return the parsed value
+     * @throws IOException if reading fails
+     */
+    private static float nextFloatLine(TokenReader reader) throws IOException {
+        float value = reader.nextFloat();
+        reader.nextLine();
+        return value;
+    }
+}
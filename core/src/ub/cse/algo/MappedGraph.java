@@ -0,0 +1,311 @@
+package ub.cse.algo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * CSR graph loaded from a memory-mapped adjacency file and kept off-heap.
+ *
+ * The text file is split into chunks on line boundaries which are parsed in
+ * parallel twice: the first pass counts every chunk's nodes and neighbors,
+ * the second writes them into offset and target arrays backed by a mapped
+ * scratch file. The heap only holds per-chunk counts, so networks far larger
+ * than the heap can still be traversed through the Adjacency surface.
+ * For the same reason edge checks scan the neighbor list instead of
+ * building an on-heap EdgeIndex
+ */
+final class MappedGraph implements Adjacency {
+    // Bytes of text parsed by one task
+    private static final long CHUNK_BYTES = 1L << 25;
+    // Entries per mapped segment, 2^27 longs or 2^28 ints are 1 GiB
+    private static final int LONG_SHIFT = 27;
+    private static final int INT_SHIFT = 28;
+    private static final long LONG_MASK = (1L << LONG_SHIFT) - 1;
+    private static final long INT_MASK = (1L << INT_SHIFT) - 1;
+
+    private final int contentProvider;
+    private final int nodes;
+    private final long edges;
+    // offsets[v] is the index of v's first neighbor, with one extra entry for the end
+    private final LongBuffer[] offsets;
+    private final IntBuffer[] targets;
+
+    private MappedGraph(int contentProvider, int nodes, long edges, LongBuffer[] offsets, IntBuffer[] targets) {
+        this.contentProvider = contentProvider;
+        this.nodes = nodes;
+        this.edges = edges;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Maps and parses a network file in the MPUtility.readFile format
+     *
+     * @param filename: the name of the input file
+     * @return the off-heap graph
+     * @throws IOException if the file can not be read or the scratch space can not be mapped
+     */
+    static MappedGraph load(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            // The first line holds the content provider
+            long headerEnd = nextLineStart(channel, 0, size);
+            ByteBuffer header = ByteBuffer.allocate((int) headerEnd);
+            channel.read(header, 0);
+            int contentProvider = Integer.parseInt(new String(header.array(), StandardCharsets.US_ASCII).trim());
+
+            // Split the rest of the file into chunks that end right after a line break
+            ArrayList<long[]> chunks = new ArrayList<>();
+            for (long start = headerEnd; start < size; ) {
+                long end = Math.min(start + CHUNK_BYTES, size);
+                if (end < size) {
+                    end = nextLineStart(channel, end - 1, size);
+                }
+                chunks.add(new long[]{start, end});
+                start = end;
+            }
+
+            // First pass: count the lines (nodes) and tokens (neighbors) of every chunk
+            int[] chunkNodes = new int[chunks.size()];
+            long[] chunkEdges = new long[chunks.size()];
+            forEachChunk(chunks.size(), chunk -> {
+                long[] counts = count(map(channel, chunks.get(chunk)));
+                chunkNodes[chunk] = (int) counts[0];
+                chunkEdges[chunk] = counts[1];
+            });
+
+            // Prefix sums give every chunk the first node and edge it writes
+            long[] nodeStarts = new long[chunks.size() + 1];
+            long[] edgeStarts = new long[chunks.size() + 1];
+            for (int chunk = 0; chunk < chunks.size(); ++chunk) {
+                nodeStarts[chunk + 1] = nodeStarts[chunk] + chunkNodes[chunk];
+                edgeStarts[chunk + 1] = edgeStarts[chunk] + chunkEdges[chunk];
+            }
+            long nodes = nodeStarts[chunks.size()];
+            long edges = edgeStarts[chunks.size()];
+            if (nodes >= Integer.MAX_VALUE) {
+                throw new IOException("Too many nodes in " + filename);
+            }
+
+            // Second pass: parse every chunk straight into the off-heap arrays
+            Path scratch = Files.createTempFile("graph", ".csr");
+            LongBuffer[] offsets;
+            IntBuffer[] targets;
+            try (FileChannel out = FileChannel.open(scratch, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                offsets = mapLongs(out, 0, nodes + 1);
+                targets = mapInts(out, (nodes + 1) * Long.BYTES, edges);
+            } finally {
+                deleteScratch(scratch);
+            }
+            forEachChunk(chunks.size(), chunk -> parseChunk(map(channel, chunks.get(chunk)),
+                    nodeStarts[chunk], edgeStarts[chunk], offsets, targets));
+            put(offsets, nodes, edges);
+
+            return new MappedGraph(contentProvider, (int) nodes, edges, offsets, targets);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.nodes;
+    }
+
+    @Override
+    public int contentProvider() {
+        return this.contentProvider;
+    }
+
+    @Override
+    public long edgeCount() {
+        return this.edges;
+    }
+
+    @Override
+    public long edgeStart(int node) {
+        return this.offsets[node >>> LONG_SHIFT].get((int) (node & LONG_MASK));
+    }
+
+    @Override
+    public long edgeEnd(int node) {
+        long next = node + 1L;
+        return this.offsets[(int) (next >>> LONG_SHIFT)].get((int) (next & LONG_MASK));
+    }
+
+    @Override
+    public int target(long edge) {
+        return this.targets[(int) (edge >>> INT_SHIFT)].get((int) (edge & INT_MASK));
+    }
+
+    /**
+     * Counts the lines and the tokens in a chunk
+     *
+     * @param buffer: the chunk's bytes
+     * @return {lines, tokens}
+     */
+    private static long[] count(ByteBuffer buffer) {
+        int length = buffer.limit();
+        long lines = 0, tokens = 0;
+        boolean inToken = false;
+        for (int i = 0; i < length; ++i) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                lines++;
+                inToken = false;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                inToken = false;
+            } else if (!inToken) {
+                tokens++;
+                inToken = true;
+            }
+        }
+        // Only the last chunk can end without a line break
+        if (length > 0 && buffer.get(length - 1) != '\n') {
+            lines++;
+        }
+        return new long[]{lines, tokens};
+    }
+
+    /**
+     * Parses every line of a chunk as one node's neighbors
+     *
+     * @param buffer: the chunk's bytes
+     * @param node: ID of the chunk's first node
+     * @param edge: index of the chunk's first neighbor
+     * @param offsets: off-heap offset array
+     * @param targets: off-heap target array
+     */
+    private static void parseChunk(ByteBuffer buffer, long node, long edge, LongBuffer[] offsets, IntBuffer[] targets) {
+        int length = buffer.limit();
+        boolean lineStarted = false;
+        for (int i = 0; i < length; ) {
+            if (!lineStarted) {
+                put(offsets, node, edge);
+                lineStarted = true;
+            }
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                node++;
+                lineStarted = false;
+                i++;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                i++;
+            } else {
+                // Parse one neighbor ID
+                boolean negative = b == '-';
+                if (negative || b == '+') {
+                    i++;
+                }
+                long value = 0;
+                int digits = 0;
+                for (; i < length; ++i) {
+                    b = buffer.get(i);
+                    if (b < '0' || b > '9') {
+                        break;
+                    }
+                    value = value * 10 + (b - '0');
+                    digits++;
+                    if (value > Integer.MAX_VALUE) {
+                        throw new NumberFormatException("Node ID out of range");
+                    }
+                }
+                if (digits == 0 || (i < length && b != ' ' && b != '\n' && b != '\t' && b != '\r')) {
+                    throw new NumberFormatException("Expected a node ID but found '" + (char) b + "'");
+                }
+                put(targets, edge++, (int) (negative ? -value : value));
+            }
+        }
+    }
+
+    /**
+     * Finds the start of the line after the byte at position
+     *
+     * @return index just past the first line break at or after position, or size
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(4096);
+        while (position < size) {
+            block.clear();
+            int read = channel.read(block, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; ++i) {
+                if (block.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long[] chunk) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void forEachChunk(int chunks, IntConsumer task) {
+        IntStream.range(0, chunks).parallel().forEach(task);
+    }
+
+    private static LongBuffer[] mapLongs(FileChannel channel, long position, long count) throws IOException {
+        LongBuffer[] segments = new LongBuffer[(int) ((count + LONG_MASK) >>> LONG_SHIFT)];
+        for (int s = 0; s < segments.length; ++s) {
+            long entries = Math.min(LONG_MASK + 1, count - ((long) s << LONG_SHIFT));
+            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, entries * Long.BYTES)
+                    .order(ByteOrder.nativeOrder()).asLongBuffer();
+            position += entries * Long.BYTES;
+        }
+        return segments;
+    }
+
+    private static IntBuffer[] mapInts(FileChannel channel, long position, long count) throws IOException {
+        IntBuffer[] segments = new IntBuffer[(int) ((count + INT_MASK) >>> INT_SHIFT)];
+        for (int s = 0; s < segments.length; ++s) {
+            long entries = Math.min(INT_MASK + 1, count - ((long) s << INT_SHIFT));
+            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, entries * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            position += entries * Integer.BYTES;
+        }
+        return segments;
+    }
+
+    private static void put(LongBuffer[] segments, long index, long value) {
+        segments[(int) (index >>> LONG_SHIFT)].put((int) (index & LONG_MASK), value);
+    }
+
+    private static void put(IntBuffer[] segments, long index, int value) {
+        segments[(int) (index >>> INT_SHIFT)].put((int) (index & INT_MASK), value);
+    }
+
+    /**
+     * The mappings stay valid after the scratch file is unlinked, so it is
+     * removed right away. Platforms that refuse remove it on exit instead
+     */
+    private static void deleteScratch(Path scratch) {
+        try {
+            Files.delete(scratch);
+        } catch (IOException e) {
+            scratch.toFile().deleteOnExit();
+        }
+    }
+}
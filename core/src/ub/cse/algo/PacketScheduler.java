@@ -0,0 +1,338 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.RadixSort;
+import ub.cse.algo.util.SummaryBitSet;
+
+import java.util.Arrays;
+
+/**
+ * Decides which of the packets waiting at a router it forwards first.
+ *
+ * A solution fixes every packet's path, so before a run every hop a packet
+ * will wait at a router is known. The hops are bucketed by router with a
+ * counting sort and laid out in the policy's order, which makes every
+ * router's queue a range of one bit set: a packet arriving sets its hop's
+ * bit, and the router forwards the first set bit of its range. Both take
+ * one word per summary level instead of the log of the queue length a
+ * heap takes, and the order itself comes from a radix sort of int keys.
+ *
+ * The scheduler is reset for every solution and keeps its memory between
+ * runs, every queue is empty again once the simulation has drained it
+ */
+class PacketScheduler {
+    /**
+     * Order in which a router forwards the packets waiting at it
+     */
+    enum Policy {
+        // Highest priority first, ties by client slot. The order Simulator.run uses
+        STRICT_PRIORITY,
+        // Smallest alpha * shortest distance first, the last tick the packet can
+        // arrive on without a complaint, ties by strict priority
+        EARLIEST_DEADLINE,
+        // Packets are grouped by priority and the groups waiting at a router take
+        // turns, deficit round robin, each forwarding as many packets per turn as
+        // its priority's level: 1 for the lowest priority in the solution, 2 for
+        // the next and so on. Higher priorities get more of every router without
+        // starving the lower ones. Within a group by strict priority
+        WEIGHTED_FAIR_SHARE
+    }
+
+    private final Policy policy;
+    private final ClientIndex clients;
+    private final int contentProvider;
+
+    // Every router's hops are entries routerStart[r] to routerEnd[r] - 1
+    private final int[] routerStart;
+    private final int[] routerEnd;
+    // Number of packets waiting at every router
+    private final int[] waiting;
+    // Routers with hops in the current run, marked with the run number
+    private final int[] seen;
+    private final int[] touched;
+    private int run;
+
+    private int[] pathPool;
+    // Entry of the hop at every path pool position, and the slot of every entry
+    private int[] entryOf = new int[0];
+    private int[] entrySlot = new int[0];
+    private final SummaryBitSet queued = new SummaryBitSet(64);
+
+    // Weighted fair share only: the priority group of every entry, and of every
+    // group its first entry, turn size, unused turn, waiting packets and its
+    // neighbors in the router's ring of groups with packets waiting
+    private int[] groupOf = new int[0];
+    private int[] groupStart = new int[0];
+    private int[] quantum = new int[0];
+    private int[] deficit = new int[0];
+    private int[] groupWaiting = new int[0];
+    private int[] nextGroup = new int[0];
+    private int[] previousGroup = new int[0];
+    // The group whose turn it is at every router, -1 if none is waiting
+    private final int[] current;
+
+    /**
+     * @param graph: the network the runs simulate
+     * @param policy: order in which routers forward packets
+     * @param clients: the clients, only needed for EARLIEST_DEADLINE
+     */
+    PacketScheduler(Adjacency graph, Policy policy, ClientIndex clients) {
+        if (policy == Policy.EARLIEST_DEADLINE && clients == null) {
+            throw new IllegalArgumentException("Earliest deadline first needs the clients' alphas");
+        }
+        this.policy = policy;
+        this.clients = clients;
+        this.contentProvider = graph.contentProvider();
+        this.routerStart = new int[graph.size()];
+        this.routerEnd = new int[graph.size()];
+        this.waiting = new int[graph.size()];
+        this.seen = new int[graph.size()];
+        this.touched = new int[graph.size()];
+        this.current = new int[graph.size()];
+        Arrays.fill(this.current, -1);
+    }
+
+    /**
+     * @return the order routers forward packets in
+     */
+    Policy policy() {
+        return this.policy;
+    }
+
+    /**
+     * Lays out the hops of a solution. Must only be called while every queue is empty
+     *
+     * @param sol: the solution about to be simulated
+     * @param shortestDistances: shortest distance from the content provider, indexed by node ID
+     */
+    void reset(CompactSolution sol, int[] shortestDistances) {
+        int[] order = order(sol, shortestDistances);
+        this.pathPool = sol.pathPool;
+        if (++this.run == 0) {
+            Arrays.fill(this.seen, 0);
+            this.run = 1;
+        }
+
+        // Count the hops at every router, then give every router its range
+        int touchedCount = 0;
+        int entries = 0;
+        for (int slot = 0; slot < sol.slots(); ++slot) {
+            if (!forwarded(sol, slot)) {
+                continue;
+            }
+            for (int i = sol.pathOffsets[slot]; i < sol.pathOffsets[slot + 1] - 1; ++i) {
+                int router = sol.pathPool[i];
+                if (router < 0 || router >= this.seen.length) {
+                    continue;
+                }
+                if (this.seen[router] != this.run) {
+                    this.seen[router] = this.run;
+                    this.routerEnd[router] = 0;
+                    this.touched[touchedCount++] = router;
+                }
+                this.routerEnd[router]++;
+                entries++;
+            }
+        }
+        for (int t = 0, offset = 0; t < touchedCount; ++t) {
+            int router = this.touched[t];
+            int count = this.routerEnd[router];
+            this.routerStart[router] = offset;
+            this.routerEnd[router] = offset;
+            offset += count;
+        }
+        ensureEntries(sol.pathPool.length, entries);
+
+        // Fill the ranges in the policy's order, routerEnd counts up to its final value
+        boolean groups = this.policy == Policy.WEIGHTED_FAIR_SHARE;
+        int[] levels = groups ? levels(sol.priorities, order) : null;
+        int groupCount = 0;
+        for (int slot : order) {
+            if (!forwarded(sol, slot)) {
+                continue;
+            }
+            for (int i = sol.pathOffsets[slot]; i < sol.pathOffsets[slot + 1] - 1; ++i) {
+                int router = sol.pathPool[i];
+                if (router < 0 || router >= this.seen.length) {
+                    continue;
+                }
+                int entry = this.routerEnd[router]++;
+                this.entryOf[i] = entry;
+                this.entrySlot[entry] = slot;
+                if (!groups) {
+                    continue;
+                }
+                if (entry == this.routerStart[router]
+                        || sol.priorities[this.entrySlot[entry - 1]] != sol.priorities[slot]) {
+                    int group = groupCount++;
+                    this.groupStart[group] = entry;
+                    this.quantum[group] = levels[slot];
+                    this.deficit[group] = 0;
+                    this.groupWaiting[group] = 0;
+                    this.groupOf[entry] = group;
+                } else {
+                    this.groupOf[entry] = this.groupOf[entry - 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * @param router: ID of the router
+     * @return true if no packet is waiting at the router
+     */
+    boolean isEmpty(int router) {
+        return this.waiting[router] == 0;
+    }
+
+    /**
+     * Queues a packet at the router it is at
+     *
+     * @param position: index into the solution's path pool of the router the packet waits at
+     */
+    void add(int position) {
+        int router = this.pathPool[position];
+        int entry = this.entryOf[position];
+        this.queued.set(entry);
+        this.waiting[router]++;
+        if (this.policy == Policy.WEIGHTED_FAIR_SHARE) {
+            int group = this.groupOf[entry];
+            if (this.groupWaiting[group]++ == 0) {
+                join(router, group);
+            }
+        }
+    }
+
+    /**
+     * Takes the packet the router forwards next out of its queue
+     *
+     * @param router: ID of the router
+     * @return the slot of the packet, -1 if none is waiting
+     */
+    int poll(int router) {
+        if (this.waiting[router] == 0) {
+            return -1;
+        }
+        int entry;
+        if (this.policy == Policy.WEIGHTED_FAIR_SHARE) {
+            // Pass the turn on until a group has some of its turn left
+            int group = this.current[router];
+            while (this.deficit[group] == 0) {
+                group = this.nextGroup[group];
+                this.deficit[group] += this.quantum[group];
+            }
+            this.current[router] = group;
+            entry = this.queued.nextSetBit(this.groupStart[group]);
+            this.deficit[group]--;
+            if (--this.groupWaiting[group] == 0) {
+                leave(router, group);
+            }
+        } else {
+            entry = this.queued.nextSetBit(this.routerStart[router]);
+        }
+        this.queued.clear(entry);
+        this.waiting[router]--;
+        return this.entrySlot[entry];
+    }
+
+    /**
+     * @return the slots in the order routers forward them, before any grouping
+     */
+    private int[] order(CompactSolution sol, int[] shortestDistances) {
+        int[] order = EventSimulator.rankOrder(sol.priorities);
+        if (this.policy == Policy.EARLIEST_DEADLINE) {
+            int[] deadlines = new int[sol.slots()];
+            for (int slot = 0; slot < deadlines.length; ++slot) {
+                int id = sol.clientIds[slot];
+                int index = this.clients.slot(id);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Node " + id + " is not a client");
+                }
+                int optimal = shortestDistances[id];
+                // A delay above alpha * optimal is a complaint, the cast rounds down and saturates
+                deadlines[slot] = optimal < 0 ? Integer.MAX_VALUE : (int) (this.clients.alphas[index] * optimal);
+            }
+            RadixSort.sortBy(order, deadlines);
+        }
+        return order;
+    }
+
+    /**
+     * @return the level of every slot's priority, 1 for the lowest priority in the solution
+     */
+    private static int[] levels(int[] priorities, int[] order) {
+        int[] levels = new int[priorities.length];
+        int level = 0;
+        for (int rank = order.length - 1; rank >= 0; --rank) {
+            if (rank == order.length - 1 || priorities[order[rank]] != priorities[order[rank + 1]]) {
+                level++;
+            }
+            levels[order[rank]] = level;
+        }
+        return levels;
+    }
+
+    /**
+     * @return true if the packet's path leaves the content provider, the only packets a router ever queues
+     */
+    private boolean forwarded(CompactSolution sol, int slot) {
+        return sol.pathLength(slot) > 1 && sol.pathPool[sol.pathOffsets[slot]] == this.contentProvider;
+    }
+
+    /**
+     * Adds a group to the end of the router's ring, a group alone starts its turn
+     */
+    private void join(int router, int group) {
+        int head = this.current[router];
+        if (head < 0) {
+            this.nextGroup[group] = group;
+            this.previousGroup[group] = group;
+            this.current[router] = group;
+            this.deficit[group] = this.quantum[group];
+            return;
+        }
+        int tail = this.previousGroup[head];
+        this.nextGroup[tail] = group;
+        this.previousGroup[group] = tail;
+        this.nextGroup[group] = head;
+        this.previousGroup[head] = group;
+        this.deficit[group] = 0;
+    }
+
+    /**
+     * Removes a group without packets from the router's ring, passing the turn on if it was its
+     */
+    private void leave(int router, int group) {
+        this.deficit[group] = 0;
+        int next = this.nextGroup[group];
+        if (next == group) {
+            this.current[router] = -1;
+            return;
+        }
+        int previous = this.previousGroup[group];
+        this.nextGroup[previous] = next;
+        this.previousGroup[next] = previous;
+        if (this.current[router] == group) {
+            this.current[router] = next;
+            this.deficit[next] += this.quantum[next];
+        }
+    }
+
+    private void ensureEntries(int positions, int entries) {
+        if (this.entryOf.length < positions) {
+            this.entryOf = new int[positions];
+        }
+        if (this.entrySlot.length < entries) {
+            this.entrySlot = new int[entries];
+            if (this.policy == Policy.WEIGHTED_FAIR_SHARE) {
+                this.groupOf = new int[entries];
+                this.groupStart = new int[entries];
+                this.quantum = new int[entries];
+                this.deficit = new int[entries];
+                this.groupWaiting = new int[entries];
+                this.nextGroup = new int[entries];
+                this.previousGroup = new int[entries];
+            }
+        }
+        this.queued.ensureCapacity(entries);
+    }
+}
@@ -0,0 +1,233 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class that contains formulas for computing the solution's revenue
+ */
+class Revenue {
+    /**
+     * Static method that will compute the revenue generated from
+     * the given solution given the boolean variables
+     *
+     * @param info: data parsed from the input file
+     * @param solutionObject: the "optimal" solution
+     * @param delays: Map of the delays the packets took to reach the clients
+     * @param pen_1: should the first penalty be applied?
+     * @param pen_2: should the second penalty be applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     * @return the calculated revenue
+     */
+
+
+    static float revenue(Info info, SolutionObject solutionObject, HashMap<Integer, Integer> delays,
+                  boolean pen_1, boolean pen_2, boolean updated_bandwidths) {
+        // Line the delays up with the slots of the client index the kernel below reads
+        ClientIndex clients = info.clientIndex();
+        int[] slotDelays = new int[clients.size()];
+        for (int slot = 0; slot < slotDelays.length; ++slot) {
+            slotDelays[slot] = delays.get(clients.ids[slot]);
+        }
+        int[] bandwidths = null;
+        if (updated_bandwidths) {
+            bandwidths = new int[solutionObject.bandwidths.size()];
+            for (int node = 0; node < bandwidths.length; ++node) {
+                bandwidths[node] = solutionObject.bandwidths.get(node);
+            }
+        }
+        int[] complaintCounts = new int[2];
+        float rev = revenue(info, bandwidths, slotDelays, pen_1, pen_2, updated_bandwidths, complaintCounts);
+
+        Metrics.count("revenue.complaints", complaintCounts[0]);
+        // Problem 2 reports how many clients complained
+        if (info.problem == 2) {
+            System.out.println("# of Complaints: " + complaintCounts[0]);
+        }
+        return rev;
+    }
+
+    /**
+     * Same as revenue(Info, SolutionObject, HashMap, ...) for a compact solution
+     * and delays indexed by client slot. Complaints are only counted, so nothing
+     * is allocated, and the result is the same float
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param solution: the "optimal" solution
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @param pen_1: should the first penalty be applied?
+     * @param pen_2: should the second penalty be applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     * @return the calculated revenue
+     */
+    static float revenue(Info info, CompactSolution solution, int[] delays,
+                         boolean pen_1, boolean pen_2, boolean updated_bandwidths) {
+        return revenue(info, solution, delays, pen_1, pen_2, updated_bandwidths, null);
+    }
+
+    /**
+     * Same as revenue(Info, CompactSolution, int[], ...) and also reports the complaints
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param solution: the "optimal" solution
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @param pen_1: should the first penalty be applied?
+     * @param pen_2: should the second penalty be applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     * @param complaintCounts: if not null, receives the number of complaints and FCC complaints
+     * @return the calculated revenue
+     */
+    static float revenue(Info info, CompactSolution solution, int[] delays,
+                         boolean pen_1, boolean pen_2, boolean updated_bandwidths, int[] complaintCounts) {
+        return revenue(info, solution.bandwidths, delays, pen_1, pen_2, updated_bandwidths, complaintCounts);
+    }
+
+    /**
+     * Same as revenue(Info, CompactSolution, int[], ...) for callers that keep the bandwidths on their own
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param bandwidths: the solution's bandwidths, indexed by node ID
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @param pen_1: should the first penalty be applied?
+     * @param pen_2: should the second penalty be applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     * @param complaintCounts: if not null, receives the number of complaints and FCC complaints
+     * @return the calculated revenue
+     */
+    static float revenue(Info info, int[] bandwidths, int[] delays,
+                         boolean pen_1, boolean pen_2, boolean updated_bandwidths, int[] complaintCounts) {
+        // The same distances readInfo found for info.shortestDelays, without boxing
+        return revenue(info, DistanceCache.shared(info.graph.adjacency), bandwidths, delays,
+                pen_1, pen_2, updated_bandwidths, complaintCounts);
+    }
+
+    /**
+     * Same as revenue(Info, int[], int[], ...) with already known shortest distances
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param shortest: shortest distance from the content provider, indexed by node ID
+     * @param bandwidths: the solution's bandwidths, indexed by node ID
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @param pen_1: should the first penalty be applied?
+     * @param pen_2: should the second penalty be applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     * @param complaintCounts: if not null, receives the number of complaints and FCC complaints
+     * @return the calculated revenue
+     */
+    static float revenue(Info info, int[] shortest, int[] bandwidths, int[] delays,
+                         boolean pen_1, boolean pen_2, boolean updated_bandwidths, int[] complaintCounts) {
+        return revenue(info, shortest, bandwidths, delays, pen_1, pen_2, updated_bandwidths, complaintCounts, null);
+    }
+
+    /**
+     * The revenue kernel every other overload ends up in. It runs over the
+     * client columns and the delays by slot, counts the complaints instead of
+     * listing the clients, and takes the number of FCC clients from the
+     * client index, so it allocates nothing
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param shortest: shortest distance from the content provider, indexed by node ID
+     * @param bandwidths: the solution's bandwidths, indexed by node ID
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @param pen_1: should the first penalty be applied?
+     * @param pen_2: should the second penalty be applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     * @param complaintCounts: if not null, receives the number of complaints and FCC complaints
+     * @param complainers: if not null, receives a bit per slot, set for the clients that complained.
+     *                     Bit s is bit s % 64 of word s / 64
+     * @return the calculated revenue
+     */
+    static float revenue(Info info, int[] shortest, int[] bandwidths, int[] delays,
+                         boolean pen_1, boolean pen_2, boolean updated_bandwidths, int[] complaintCounts,
+                         long[] complainers) {
+        ClientIndex clients = info.clientIndex();
+        int[] ids = clients.ids;
+        float[] alphas = clients.alphas;
+        float[] betas = clients.betas;
+        int[] payments = clients.payments;
+        boolean[] isFcc = clients.isFcc;
+        boolean allOrNothing = info.problem == 5;
+        boolean betaComplaints = pen_1 || pen_2;
+        if (complainers != null) {
+            Arrays.fill(complainers, 0, (delays.length + 63) >>> 6, 0L);
+        }
+
+        // Number of clients who have complained, and how many of them are with the FCC
+        int complaints = 0;
+        int fccComplaints = 0;
+        // Rolling sum of the revenue
+        float rev = 0f;
+
+        for (int slot = 0; slot < delays.length; ++slot) {
+            int delay = delays[slot];
+            int optimal = shortest[ids[slot]];
+
+            // Find the revenue of the client and add it to the current total
+            boolean complained = delay > (alphas[slot] * optimal);
+            float currRev = complained ? 0 : payments[slot];
+            rev += currRev;
+
+            // For problem 5, if a single client had their packet delay, no revenue is made
+            if (allOrNothing && currRev == 0) {
+                return 0;
+            }
+
+            // The client may also complain when the delay is past their beta
+            if (betaComplaints && currRev != 0) {
+                complained = delay > (betas[slot] * optimal);
+            }
+            if (complained) {
+                complaints++;
+                if (isFcc[slot]) {
+                    fccComplaints++;
+                }
+                if (complainers != null) {
+                    complainers[slot >>> 6] |= 1L << slot;
+                }
+            }
+        }
+        if (complaintCounts != null) {
+            complaintCounts[0] = complaints;
+            complaintCounts[1] = fccComplaints;
+        }
+
+        // Apply the first penalty if needed
+        if (pen_1 && complaints >= (int) (info.rho1 * info.clients.size())) {
+            rev += -info.lawsuit;
+        }
+
+        // Apply the second penalty if needed
+        if (pen_2 && fccComplaints >= (int) (clients.fccCount * info.rho2)) {
+            rev += -info.fccFine;
+        }
+
+        // Apply the updated bandwidths penalty if needed
+        if (updated_bandwidths) {
+            rev += bandwidthPenalty(info, bandwidths);
+        }
+
+        return rev;
+    }
+
+    /**
+     * Calculate the penalty for changing the bandwidths
+     *
+     * @param info: data parsed from the input file, holds the original bandwidths
+     * @param bandwidths: the solution's bandwidths, indexed by node ID
+     * @return the penalty to be applied to the revenue
+     */
+    static float bandwidthPenalty(Info info, int[] bandwidths) {
+        float cost = 0f;
+        for (int node = 0; node < info.bandwidths.size(); ++node) {
+            // Add the ratio of the difference between bandwidths and the update cost to the total cost
+            int diff = bandwidths[node] - info.bandwidths.get(node);
+            if (diff > 0) {
+                cost += (float) diff * info.costBandwidth;
+            }
+        }
+        // Penalty for overflow
+        return (cost < 0) ? Float.MIN_VALUE : -cost;
+    }
+}
@@ -0,0 +1,317 @@
+package ub.cse.algo;
+
+/**
+ * How far a simulated solution is from every edge where its revenue
+ * changes, for optimizers that want to skip moves which can not matter.
+ *
+ * For every client there is the last delay it still pays at (alpha) and the
+ * last one it does not complain at (beta), how much room its packet has
+ * before either, and what the revenue would do if the delay moved. For the
+ * whole solution there is how many more complaints the lawsuit and the FCC
+ * fine are away, and what raising a router's bandwidth costs. A move that
+ * keeps every client it touches within its current limits, see changesState,
+ * can not change the revenue and does not need to be simulated.
+ *
+ * The limits follow the comparisons of the Revenue kernel exactly, including
+ * the float rounding of alpha * optimal and beta * optimal. The state is a
+ * snapshot, a new one is needed after the delays change
+ */
+class Sensitivity {
+    private final Info info;
+    private final boolean pen_1;
+    private final boolean pen_2;
+    private final int[] bandwidths;
+    private final int[] delays;
+    private final int[] payments;
+    private final boolean[] isFcc;
+    // Last delay every client pays at, and does not complain at, -1 if there is none
+    private final int[] alphaLimits;
+    private final int[] betaLimits;
+
+    private final float revenue;
+    // Sum of the payments, and the clients that pay nothing (only counted for problem 5)
+    private final float paid;
+    private final int unpaid;
+    private final int complaints;
+    private final int fccComplaints;
+    private final int lawsuitThreshold;
+    private final int fineThreshold;
+    private final float bandwidthPenalty;
+
+    /**
+     * Same arguments as the Revenue kernel
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param shortest: shortest distance from the content provider, indexed by node ID
+     * @param bandwidths: the solution's bandwidths, indexed by node ID
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @param pen_1: is the first penalty applied?
+     * @param pen_2: is the second penalty applied?
+     * @param updated_bandwidths: have the bandwidths been changed?
+     */
+    Sensitivity(Info info, int[] shortest, int[] bandwidths, int[] delays,
+                boolean pen_1, boolean pen_2, boolean updated_bandwidths) {
+        ClientIndex clients = info.clientIndex();
+        this.info = info;
+        this.pen_1 = pen_1;
+        this.pen_2 = pen_2;
+        this.bandwidths = bandwidths.clone();
+        this.delays = delays.clone();
+        this.payments = clients.payments;
+        this.isFcc = clients.isFcc;
+        this.alphaLimits = new int[delays.length];
+        this.betaLimits = new int[delays.length];
+
+        float paid = 0f;
+        int unpaid = 0, complaints = 0, fccComplaints = 0;
+        for (int slot = 0; slot < delays.length; ++slot) {
+            int optimal = shortest[clients.ids[slot]];
+            this.alphaLimits[slot] = lastDelayWithin(clients.alphas[slot], optimal);
+            this.betaLimits[slot] = lastDelayWithin(clients.betas[slot], optimal);
+            float currRev = pays(slot, delays[slot]);
+            paid += currRev;
+            if (currRev == 0) {
+                unpaid++;
+            }
+            if (complains(slot, delays[slot])) {
+                complaints++;
+                if (this.isFcc[slot]) {
+                    fccComplaints++;
+                }
+            }
+        }
+        this.paid = paid;
+        this.unpaid = unpaid;
+        this.complaints = complaints;
+        this.fccComplaints = fccComplaints;
+        this.lawsuitThreshold = (int) (info.rho1 * info.clients.size());
+        this.fineThreshold = (int) (clients.fccCount * info.rho2);
+        this.bandwidthPenalty = updated_bandwidths ? Revenue.bandwidthPenalty(info, bandwidths) : 0f;
+        // The exact float the solution scores, the payments above are summed the same way
+        this.revenue = Revenue.revenue(info, shortest, bandwidths, delays, pen_1, pen_2, updated_bandwidths, null);
+    }
+
+    /**
+     * Sensitivity of a compact solution with the penalties of the testcase's problem, like runHelper
+     *
+     * @param info: data parsed from the input file, its clients are the slots
+     * @param solution: the simulated solution
+     * @param delays: the delays the packets took to reach the clients, by slot
+     * @return the solution's sensitivity
+     */
+    static Sensitivity of(Info info, CompactSolution solution, int[] delays) {
+        boolean penalties = info.problem == 3 || info.problem == 4;
+        return new Sensitivity(info, DistanceCache.shared(info.graph.adjacency), solution.bandwidths, delays,
+                penalties, penalties, solution.bandwidthsChanged(info.bandwidths));
+    }
+
+    /**
+     * @return the revenue of the solution, the same float Revenue gives
+     */
+    float revenue() {
+        return this.revenue;
+    }
+
+    /**
+     * @param slot: client slot
+     * @return the last delay the client pays at, -1 if it never pays
+     */
+    int alphaLimit(int slot) {
+        return this.alphaLimits[slot];
+    }
+
+    /**
+     * @param slot: client slot
+     * @return the last delay the client does not complain at while it pays, -1 if there is none
+     */
+    int betaLimit(int slot) {
+        return this.betaLimits[slot];
+    }
+
+    /**
+     * @param slot: client slot
+     * @return how many ticks later the packet could arrive and still be paid for, negative if it is not paid for
+     */
+    int alphaHeadroom(int slot) {
+        return headroom(this.alphaLimits[slot], this.delays[slot]);
+    }
+
+    /**
+     * @param slot: client slot
+     * @return how many ticks later the packet could arrive before the client complains, negative if it complains
+     */
+    int betaHeadroom(int slot) {
+        return headroom(this.betaLimits[slot], this.delays[slot]);
+    }
+
+    /**
+     * @param slot: client slot
+     * @return the revenue that rides on the client: what is lost if a paying client's
+     * delay went past its alpha limit, or gained if an unpaid one came within its limits
+     */
+    float stake(int slot) {
+        int delay;
+        if (pays(slot, this.delays[slot]) != 0) {
+            delay = this.alphaLimits[slot] == Integer.MAX_VALUE ? Integer.MAX_VALUE : this.alphaLimits[slot] + 1;
+        } else {
+            delay = this.alphaLimits[slot];
+            if (penaltiesOn() && this.betaLimits[slot] >= 0) {
+                delay = Math.min(delay, this.betaLimits[slot]);
+            }
+            if (delay < 0) {
+                return 0;
+            }
+        }
+        return Math.abs(revenueChange(slot, delay));
+    }
+
+    /**
+     * @param slot: client slot
+     * @param delay: a delay for the client's packet
+     * @return true if the client would pay or complain differently at that delay
+     */
+    boolean changesState(int slot, int delay) {
+        int current = this.delays[slot];
+        return (delay > this.alphaLimits[slot]) != (current > this.alphaLimits[slot])
+                || complains(slot, delay) != complains(slot, current);
+    }
+
+    /**
+     * The change in revenue if only this client's delay moved, penalties
+     * included. It is the sum of the terms that change, a full Revenue run
+     * adds the payments in slot order and may differ in the last bits
+     *
+     * @param slot: client slot
+     * @param delay: the new delay of the client's packet
+     * @return the change in revenue, 0 if the client's state does not change
+     */
+    float revenueChange(int slot, int delay) {
+        int current = this.delays[slot];
+        if (!changesState(slot, delay)) {
+            return 0;
+        }
+        float paidBefore = pays(slot, current), paidAfter = pays(slot, delay);
+        int change = (complains(slot, delay) ? 1 : 0) - (complains(slot, current) ? 1 : 0);
+        int complaints = this.complaints + change;
+        int fccComplaints = this.fccComplaints + (this.isFcc[slot] ? change : 0);
+
+        if (this.info.problem == 5) {
+            // One client that pays nothing and there is no revenue at all
+            int unpaid = this.unpaid + (paidAfter == 0 ? 1 : 0) - (paidBefore == 0 ? 1 : 0);
+            float after = unpaid > 0 ? 0 : this.paid - paidBefore + paidAfter
+                    + penalties(complaints, fccComplaints) + this.bandwidthPenalty;
+            return after - this.revenue;
+        }
+        return paidAfter - paidBefore + penalties(complaints, fccComplaints)
+                - penalties(this.complaints, this.fccComplaints);
+    }
+
+    /**
+     * @return number of clients that complain
+     */
+    int complaints() {
+        return this.complaints;
+    }
+
+    /**
+     * @return number of FCC clients that complain
+     */
+    int fccComplaints() {
+        return this.fccComplaints;
+    }
+
+    /**
+     * @return how many more complaints until the lawsuit, 0 or less if it applies already,
+     * Integer.MAX_VALUE without the first penalty
+     */
+    int complaintsBeforeLawsuit() {
+        return this.pen_1 ? this.lawsuitThreshold - this.complaints : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return how many more FCC complaints until the fine, 0 or less if it applies already,
+     * Integer.MAX_VALUE without the second penalty
+     */
+    int fccComplaintsBeforeFine() {
+        return this.pen_2 ? this.fineThreshold - this.fccComplaints : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param router: ID of the router
+     * @return what raising the router's bandwidth by one costs, 0 while it is below the original
+     */
+    float upgradeCost(int router) {
+        return this.bandwidths[router] >= this.info.bandwidths.get(router) ? this.info.costBandwidth : 0f;
+    }
+
+    /**
+     * @return the bandwidth penalty in the revenue, 0 or negative
+     */
+    float bandwidthPenalty() {
+        return this.bandwidthPenalty;
+    }
+
+    /**
+     * @return the payment the client makes at the delay, as the Revenue kernel counts it
+     */
+    private float pays(int slot, int delay) {
+        return delay > this.alphaLimits[slot] ? 0 : this.payments[slot];
+    }
+
+    /**
+     * @return true if the client complains at the delay, as the Revenue kernel counts it
+     */
+    private boolean complains(int slot, int delay) {
+        if (delay > this.alphaLimits[slot]) {
+            return true;
+        }
+        return penaltiesOn() && this.payments[slot] != 0 && delay > this.betaLimits[slot];
+    }
+
+    private boolean penaltiesOn() {
+        return this.pen_1 || this.pen_2;
+    }
+
+    /**
+     * @return the lawsuit and FCC fine at these complaint counts, 0 or negative
+     */
+    private float penalties(int complaints, int fccComplaints) {
+        float penalty = 0f;
+        if (this.pen_1 && complaints >= this.lawsuitThreshold) {
+            penalty += -this.info.lawsuit;
+        }
+        if (this.pen_2 && fccComplaints >= this.fineThreshold) {
+            penalty += -this.info.fccFine;
+        }
+        return penalty;
+    }
+
+    private static int headroom(int limit, int delay) {
+        return (int) Math.max(Math.min((long) limit - delay, Integer.MAX_VALUE), Integer.MIN_VALUE);
+    }
+
+    /**
+     * @param factor: the client's alpha or beta
+     * @param optimal: the client's shortest distance
+     * @return the largest delay d with d <= factor * optimal once d is converted to a float
+     * like the Revenue kernel does, -1 if no delay is
+     */
+    static int lastDelayWithin(float factor, int optimal) {
+        float bound = factor * optimal;
+        if (!(bound >= 0)) {
+            return -1;
+        }
+        if (bound >= (float) Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        int delay = (int) bound;
+        // Big delays round when converted, step to the exact edge
+        while (delay < Integer.MAX_VALUE && (float) (delay + 1) <= bound) {
+            delay++;
+        }
+        while (delay >= 0 && (float) delay > bound) {
+            delay--;
+        }
+        return delay;
+    }
+}
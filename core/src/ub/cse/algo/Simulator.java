@@ -1,5 +1,7 @@
 package ub.cse.algo;
 
+import ub.cse.algo.util.Metrics;
+
 import java.util.*;
 
 /**
@@ -10,13 +12,13 @@ class Simulator {
     /**
      * Checks if the two nodes are neighbors
      *
-     * @param graph: Graph object
+     * @param graph: compact graph of the network
      * @param node1: first node
      * @param node2: second node
      * @return true if the node2 has node1 in their neighbor list otherwise false
      */
-    private static boolean validateEdge(Graph graph, int node1, int node2) {
-        return graph.get(node2).contains(node1);
+    private static boolean validateEdge(Adjacency graph, int node1, int node2) {
+        return graph.hasEdge(node2, node1);
     }
 
     /**
@@ -29,19 +31,52 @@ class Simulator {
      * @return a map of Client IDs to packet delays
      */
     static HashMap<Integer, Integer> run(Graph graph, ArrayList<Client> clientList, SolutionObject sol) {
+        return run(graph.adjacency, clientList, sol);
+    }
+
+    /**
+     * Same as run(Graph, ArrayList, SolutionObject) but
+     * simulates directly on the compact graph
+     *
+     * @param graph: compact graph representing the network
+     * @param clientList: List of Client Objects
+     * @param sol: Solution to Simulate
+     * @return a map of Client IDs to packet delays
+     */
+    static HashMap<Integer, Integer> run(Adjacency graph, ArrayList<Client> clientList, SolutionObject sol) {
+        return run(graph, clientList, sol, Traversals.Strategy.TOP_DOWN);
+    }
+
+    /**
+     * Same as run(Adjacency, ArrayList, SolutionObject) but with a choice
+     * of BFS strategy for finding the shortest distances
+     *
+     * @param graph: compact graph representing the network
+     * @param clientList: List of Client Objects
+     * @param sol: Solution to Simulate
+     * @param strategy: how to run the BFS
+     * @return a map of Client IDs to packet delays
+     */
+    static HashMap<Integer, Integer> run(Adjacency graph, ArrayList<Client> clientList, SolutionObject sol,
+                                         Traversals.Strategy strategy) {
         // Creating shortest paths
-        HashMap<Integer, Integer> shortestDistances = Traversals.bfs(graph, clientList);
+        HashMap<Integer, Integer> shortestDistances = Metrics.time("simulate.bfs",
+                () -> Traversals.bfs(graph, clientList, strategy));
 
-        // Copy the clients over
+        // Look every priority up once, instead of twice per comparison in a sort
+        int[] priorities = new int[clientList.size()];
+        for (int slot = 0; slot < priorities.length; ++slot) {
+            Integer priority = sol.priorities.get(clientList.get(slot).id);
+            priorities[slot] = priority != null ? priority : 0;
+        }
+
+        // Copy the clients over by priority in descending order, ties keep their list order
         List<Client> clients = new LinkedList<>();
-        for (Client c : clientList) {
+        for (int slot : EventSimulator.rankOrder(priorities)) {
+            Client c = clientList.get(slot);
             clients.add(new Client(c.id, c.alpha, c.beta, c.payment, c.isRural, c.isFcc));
         }
 
-        // Sort the clients by priority in descending order
-        Comparator<Client> comp = Comparator.comparingInt((c)->(sol.priorities.get(c.id)!=null)?sol.priorities.get(c.id):0);
-        clients.sort(comp.reversed());
-
         // Mapping client ids to their corresponding packet objects
         HashMap<Integer, Packet> packets = new HashMap<>();
         for (Client client : clients) {
@@ -64,7 +99,7 @@ class Simulator {
                 Packet packet = packets.get(current.id);
 
                 // Make sure the path is valid. Starting with the ISP and ending with the client
-                if (packet.path == null || packet.path.isEmpty() || packet.path.get(0) != graph.contentProvider) {
+                if (packet.path == null || packet.path.isEmpty() || packet.path.get(0) != graph.contentProvider()) {
                     delays.put(packet.client, Integer.MAX_VALUE);
                     iter.remove();
                     continue;
@@ -104,4 +139,16 @@ class Simulator {
         }
         return delays;
     }
+
+    /**
+     * Simulates a compact solution. This runs on the event-driven engine,
+     * which gives the same delays as the sweep above without boxing any hops
+     *
+     * @param graph: Graph Object representing the network
+     * @param sol: Solution to Simulate
+     * @return the packet delays indexed by client slot
+     */
+    static int[] run(Graph graph, CompactSolution sol) {
+        return EventSimulator.run(graph.adjacency, sol);
+    }
 }
@@ -0,0 +1,238 @@
+package ub.cse.algo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a parsed testcase (Graph + Info) that can be reloaded
+ * with a single mapped read instead of re-parsing the text files and
+ * re-running BFS for the shortest delays. The shortest distance of every
+ * node is stored and handed to DistanceCache, so nothing that runs on the
+ * reloaded network needs the BFS either.
+ *
+ * Layout (little endian):
+ *     header:   magic, version, problem, a reserved int, source network
+ *               length and modification time, source info length and
+ *               modification time
+ *     network:  content provider, nodes, edges, offsets[nodes + 1], targets[edges],
+ *               shortest distances[nodes] (-1 if unreachable)
+ *     info:     bandwidths[nodes], rho1, rho2, lawsuit, fccFine, costBandwidth
+ *     clients:  count, then ids, alphas, betas, payments and flags, each stored
+ *               as a column
+ *     checksum: CRC32 of every byte before it
+ */
+class Snapshot {
+    private static final int MAGIC = 0x4D50534E;
+    // Version 2 stores the distances of every node instead of only the clients'
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + 4 * Long.BYTES;
+    // Bits of the per client flags byte
+    private static final int RURAL = 1;
+    private static final int FCC = 2;
+
+    /**
+     * @param filename: the name of the network input file
+     * @return the path of the snapshot kept next to it
+     */
+    static Path pathFor(String filename) {
+        return Paths.get(filename + ".snap");
+    }
+
+    /**
+     * Writes the snapshot for a testcase. The file is written under a temporary
+     * name and moved into place so readers never see a partial snapshot
+     *
+     * @param info: the parsed testcase
+     * @param problem: the problem number the testcase was parsed for
+     * @param filename: the name of the network input file
+     * @throws IOException if the snapshot can not be written
+     */
+    static void write(Info info, int problem, String filename) throws IOException {
+        Adjacency graph = info.graph.adjacency;
+        int nodes = graph.size();
+        long edges = graph.edgeCount();
+        int clients = info.clients.size();
+        long size = HEADER_BYTES
+                + 3L * Integer.BYTES + (2L * nodes + 1L + edges) * Integer.BYTES
+                + (long) nodes * Integer.BYTES + 5L * Float.BYTES
+                + Integer.BYTES + clients * (4L * Integer.BYTES + 1)
+                + Long.BYTES;
+        // A snapshot is read with a single mapping, which is capped at 2 GiB
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Network is too large for a snapshot");
+        }
+
+        Path target = pathFor(filename);
+        Path temp = Paths.get(target + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            // Header
+            File network = new File(filename);
+            File details = new File(filename + "-info");
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(problem).putInt(0);
+            buffer.putLong(network.length()).putLong(network.lastModified());
+            buffer.putLong(details.length()).putLong(details.lastModified());
+
+            // Network in CSR form
+            buffer.putInt(graph.contentProvider()).putInt(nodes).putInt((int) edges);
+            for (int node = 0; node <= nodes; ++node) {
+                buffer.putInt((int) (node < nodes ? graph.edgeStart(node) : edges));
+            }
+            for (long e = 0; e < edges; ++e) {
+                buffer.putInt(graph.target(e));
+            }
+            for (int distance : DistanceCache.shared(graph)) {
+                buffer.putInt(distance);
+            }
+
+            // Node bandwidths and problem constants
+            for (int bandwidth : info.bandwidths) {
+                buffer.putInt(bandwidth);
+            }
+            buffer.putFloat(info.rho1).putFloat(info.rho2).putFloat(info.lawsuit)
+                    .putFloat(info.fccFine).putFloat(info.costBandwidth);
+
+            // Client columns
+            buffer.putInt(clients);
+            for (Client client : info.clients) {
+                buffer.putInt(client.id);
+            }
+            for (Client client : info.clients) {
+                buffer.putFloat(client.alpha);
+            }
+            for (Client client : info.clients) {
+                buffer.putFloat(client.beta);
+            }
+            for (Client client : info.clients) {
+                buffer.putInt(client.payment);
+            }
+            for (Client client : info.clients) {
+                buffer.put((byte) ((client.isRural ? RURAL : 0) | (client.isFcc ? FCC : 0)));
+            }
+
+            // Checksum of everything written so far
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().flip());
+            buffer.putLong(crc.getValue());
+            buffer.force();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reloads a snapshot. Returns null when there is no usable snapshot: it is
+     * missing, from another format version or problem, older than the text
+     * files it was made from, or its checksum does not match
+     *
+     * @param problem: the problem number the testcase is parsed for
+     * @param filename: the name of the network input file
+     * @return the reloaded testcase, or null
+     * @throws IOException if the snapshot exists but can not be read
+     */
+    static Info read(int problem, String filename) throws IOException {
+        Path path = pathFor(filename);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES + Long.BYTES) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Reject snapshots that do not belong to these text files
+        File network = new File(filename);
+        File details = new File(filename + "-info");
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != problem) {
+            return null;
+        }
+        buffer.getInt();
+        if (buffer.getLong() != network.length() || buffer.getLong() != network.lastModified()
+                || buffer.getLong() != details.length() || buffer.getLong() != details.lastModified()) {
+            return null;
+        }
+
+        // Verify the checksum before trusting any of the sizes inside
+        int end = buffer.limit() - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(end));
+        if (crc.getValue() != buffer.getLong(end)) {
+            return null;
+        }
+
+        // Network
+        int contentProvider = buffer.getInt();
+        int nodes = buffer.getInt();
+        int edges = buffer.getInt();
+        int[] offsets = getInts(buffer, nodes + 1);
+        int[] targets = getInts(buffer, edges);
+        int[] distances = getInts(buffer, nodes);
+        CsrGraph graph = new CsrGraph(contentProvider, offsets, targets);
+        DistanceCache.seed(graph, distances);
+        Info info = new Info(new Graph(graph));
+        info.problem = problem;
+
+        // Node bandwidths and problem constants
+        int[] bandwidths = getInts(buffer, nodes);
+        info.bandwidths.ensureCapacity(nodes);
+        for (int bandwidth : bandwidths) {
+            info.bandwidths.add(bandwidth);
+        }
+        info.rho1 = buffer.getFloat();
+        info.rho2 = buffer.getFloat();
+        info.lawsuit = buffer.getFloat();
+        info.fccFine = buffer.getFloat();
+        info.costBandwidth = buffer.getFloat();
+
+        // Clients
+        int clients = buffer.getInt();
+        int[] ids = getInts(buffer, clients);
+        float[] alphas = new float[clients];
+        buffer.asFloatBuffer().get(alphas);
+        buffer.position(buffer.position() + clients * Float.BYTES);
+        float[] betas = new float[clients];
+        buffer.asFloatBuffer().get(betas);
+        buffer.position(buffer.position() + clients * Float.BYTES);
+        int[] payments = getInts(buffer, clients);
+        byte[] flags = new byte[clients];
+        buffer.get(flags);
+
+        info.clients = new ArrayList<>(clients);
+        info.shortestDelays = new HashMap<>(clients);
+        for (int c = 0; c < clients; ++c) {
+            info.clients.add(new Client(ids[c], alphas[c], betas[c], payments[c],
+                    (flags[c] & RURAL) != 0, (flags[c] & FCC) != 0));
+            info.shortestDelays.put(ids[c], distances[ids[c]]);
+        }
+        info.clientIndex = new ClientIndex(info.clients, nodes);
+        return info;
+    }
+
+    /**
+     * Bulk copies the next count ints out of the buffer
+     */
+    private static int[] getInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+}
@@ -0,0 +1,373 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.TokenWriter;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic testcases in the format MPUtility reads: the network file
+ * (content provider, then one row of neighbors per node) and the "-info" file
+ * (the problem's header lines, then one row per node with the Globals columns).
+ *
+ * Rows are written as they are generated and the links are never held in
+ * memory, so networks with hundreds of millions of links can be written:
+ *     POWER_LAW: every node links to a few earlier nodes, picking node t out of
+ *                the i before it with a bias towards old nodes that gives a
+ *                power law degree distribution with the given exponent. A node's
+ *                links to earlier nodes are a hash of its ID, so they can be
+ *                recomputed; the links from later nodes are collected in passes
+ *                over the later nodes, one per block of rows that fits the budget
+ *     GRID:      nodes on a square grid linked to the nodes around them
+ *     TREE:      an ISP style hierarchy where every router has a fixed number of
+ *                children and is linked to its neighboring siblings for redundancy
+ *
+ * Usage: TopologyGenerator <output file> [--nodes N] [--topology power-law|grid|tree]
+ *        [--problem P] [--clients fraction] [--bandwidth unlimited|degree|uniform:LO-HI]
+ *        [--links M] [--exponent G] [--fanout K] [--seed S]
+ */
+class TopologyGenerator {
+
+    enum Topology { POWER_LAW, GRID, TREE }
+
+    // Shape and size of the network
+    Topology topology = Topology.POWER_LAW;
+    int nodes = 10000;
+    // Seed of every random choice, the same settings and seed write the same files
+    long seed = 331;
+    // Share of the nodes, other than the content provider, that are clients
+    double clientDensity = 0.2;
+    // Node bandwidths: "unlimited", "degree" or "uniform:LO-HI"
+    String bandwidth = "uniform:2-15";
+    // Problem whose info format to write
+    int problem = 3;
+    // Links every power law node makes to earlier nodes, and the degree exponent
+    int links = 4;
+    double exponent = 3;
+    // Children of every tree node
+    int fanout = 4;
+    // Links collected per pass when writing a power law network
+    int linkBudget = 1 << 24;
+
+    // Degree of every node, only kept for power law networks
+    private int[] degrees;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: TopologyGenerator <output file> [--nodes N] [--topology power-law|grid|tree]");
+            System.out.println("    [--problem P] [--clients fraction] [--bandwidth unlimited|degree|uniform:LO-HI]");
+            System.out.println("    [--links M] [--exponent G] [--fanout K] [--seed S]");
+            return;
+        }
+        TopologyGenerator generator = new TopologyGenerator();
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                System.out.println("Missing value for " + args[i]);
+                return;
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--nodes":
+                    generator.nodes = Integer.parseInt(value);
+                    break;
+                case "--topology":
+                    generator.topology = Topology.valueOf(value.toUpperCase().replace('-', '_'));
+                    break;
+                case "--problem":
+                    generator.problem = Integer.parseInt(value);
+                    break;
+                case "--clients":
+                    generator.clientDensity = Double.parseDouble(value);
+                    break;
+                case "--bandwidth":
+                    generator.bandwidth = value;
+                    break;
+                case "--links":
+                    generator.links = Integer.parseInt(value);
+                    break;
+                case "--exponent":
+                    generator.exponent = Double.parseDouble(value);
+                    break;
+                case "--fanout":
+                    generator.fanout = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    generator.seed = Long.parseLong(value);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        try {
+            generator.write(args[0]);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the network file and its info file next to it
+     *
+     * @param filename: name of the network file, the info file is filename + "-info"
+     * @throws IOException if the files can not be written
+     */
+    void write(String filename) throws IOException {
+        if (this.nodes < 1) {
+            throw new IllegalArgumentException("A network needs at least one node");
+        }
+        if (this.topology == Topology.POWER_LAW && this.exponent <= 2) {
+            throw new IllegalArgumentException("The power law exponent must be above 2");
+        }
+        try (TokenWriter out = new TokenWriter(filename)) {
+            writeNetwork(out);
+        }
+        try (TokenWriter out = new TokenWriter(filename + "-info")) {
+            writeInfo(out);
+        }
+    }
+
+    /**
+     * @return the node the content is served from
+     */
+    int contentProvider() {
+        if (this.topology == Topology.GRID) {
+            // The middle of the grid
+            int width = gridWidth();
+            return Math.min(this.nodes - 1, (this.nodes / width / 2) * width + width / 2);
+        }
+        // The root of the tree, or the oldest and best connected power law node
+        return 0;
+    }
+
+    private void writeNetwork(TokenWriter out) throws IOException {
+        out.writeInt(contentProvider()).endLine();
+        switch (this.topology) {
+            case POWER_LAW:
+                writePowerLaw(out);
+                break;
+            case GRID:
+                int width = gridWidth();
+                for (int node = 0; node < this.nodes; ++node) {
+                    if (node >= width) {
+                        out.writeInt(node - width);
+                    }
+                    if (node % width > 0) {
+                        out.writeInt(node - 1);
+                    }
+                    if (node % width < width - 1 && node + 1 < this.nodes) {
+                        out.writeInt(node + 1);
+                    }
+                    if (node + width < this.nodes) {
+                        out.writeInt(node + width);
+                    }
+                    out.endLine();
+                }
+                break;
+            case TREE:
+                for (int node = 0; node < this.nodes; ++node) {
+                    if (node > 0) {
+                        out.writeInt((node - 1) / this.fanout);
+                        if (node > 1 && (node - 2) / this.fanout == (node - 1) / this.fanout) {
+                            out.writeInt(node - 1);
+                        }
+                        if (node + 1 < this.nodes && node / this.fanout == (node - 1) / this.fanout) {
+                            out.writeInt(node + 1);
+                        }
+                    }
+                    for (long child = (long) node * this.fanout + 1;
+                         child <= (long) node * this.fanout + this.fanout && child < this.nodes; ++child) {
+                        out.writeInt((int) child);
+                    }
+                    out.endLine();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes the power law rows a block at a time. A node's row is its links to
+     * earlier nodes followed by the links later nodes made to it
+     */
+    private void writePowerLaw(TokenWriter out) throws IOException {
+        int[] up = new int[this.links];
+
+        // Count the links every node gets from later nodes
+        this.degrees = new int[this.nodes];
+        for (int node = 1; node < this.nodes; ++node) {
+            int count = upLinks(node, up);
+            for (int k = 0; k < count; ++k) {
+                this.degrees[up[k]]++;
+            }
+        }
+
+        for (int first = 0; first < this.nodes; ) {
+            // Take as many rows as fit in the link budget, at least one
+            int last = first;
+            long collected = 0;
+            while (last < this.nodes && (last == first || collected + this.degrees[last] <= this.linkBudget)) {
+                collected += this.degrees[last++];
+            }
+
+            // Collect the links later nodes made into this block, grouped by row
+            int[] offsets = new int[last - first + 1];
+            for (int node = first; node < last; ++node) {
+                offsets[node - first + 1] = offsets[node - first] + this.degrees[node];
+            }
+            int[] fill = offsets.clone();
+            int[] down = new int[(int) collected];
+            for (int node = first + 1; node < this.nodes; ++node) {
+                int count = upLinks(node, up);
+                for (int k = 0; k < count; ++k) {
+                    if (up[k] >= first && up[k] < last) {
+                        down[fill[up[k] - first]++] = node;
+                    }
+                }
+            }
+
+            for (int node = first; node < last; ++node) {
+                int count = upLinks(node, up);
+                for (int k = 0; k < count; ++k) {
+                    out.writeInt(up[k]);
+                }
+                for (int e = offsets[node - first]; e < offsets[node - first + 1]; ++e) {
+                    out.writeInt(down[e]);
+                }
+                out.endLine();
+                // From here on the degree includes the node's own links
+                this.degrees[node] += count;
+            }
+            first = last;
+        }
+    }
+
+    /**
+     * Finds the distinct earlier nodes a power law node links to. Target t of
+     * node i is i * u^beta for a uniform u hashed from i, and beta sets the
+     * degree exponent to 1 + beta / (beta - 1)
+     *
+     * @param node: the node making the links
+     * @param up: receives the targets
+     * @return the number of targets
+     */
+    private int upLinks(int node, int[] up) {
+        double beta = (this.exponent - 1) / (this.exponent - 2);
+        int count = 0;
+        for (int k = 0; k < this.links && node > 0; ++k) {
+            double u = (mix(this.seed + (long) node * this.links + k) >>> 11) * 0x1.0p-53;
+            int target = Math.min(node - 1, (int) (node * (beta == 2 ? u * u : Math.pow(u, beta))));
+            boolean repeat = false;
+            for (int j = 0; j < count && !repeat; ++j) {
+                repeat = up[j] == target;
+            }
+            if (!repeat) {
+                up[count++] = target;
+            }
+        }
+        return count;
+    }
+
+    private void writeInfo(TokenWriter out) throws IOException {
+        // Header lines, in the order MPUtility.readInfo reads them
+        if (this.problem == 3 || this.problem == 4) {
+            out.writeFloat(0.5f).endLine();
+            out.writeFloat(0.4f).endLine();
+            out.writeInt(250000).endLine();
+            out.writeInt(150000).endLine();
+        }
+        if (this.problem >= 3 && this.problem <= 5) {
+            out.writeInt(1).endLine();
+        }
+
+        // Problems 1, 2 and 5 use the first four columns, 3 adds betas and FCC, 4 adds rural
+        int columns = this.problem == 4 ? Globals.IS_RURAL + 1
+                : this.problem == 3 ? Globals.IS_FCC + 1 : Globals.PAYMENTS + 1;
+        int provider = contentProvider();
+        SplittableRandom random = new SplittableRandom(this.seed);
+        for (int node = 0; node < this.nodes; ++node) {
+            boolean client = node != provider && random.nextDouble() < this.clientDensity;
+            float alpha = (500 + random.nextInt(700)) / 100f;
+            for (int column = 0; column < columns; ++column) {
+                switch (column) {
+                    case Globals.IS_CLIENT:
+                        out.writeInt(client ? 1 : 0);
+                        break;
+                    case Globals.BANDWIDTHS:
+                        out.writeInt(node == provider ? -1 : nodeBandwidth(node, random));
+                        break;
+                    case Globals.ALPHAS:
+                        out.writeFloat(alpha);
+                        break;
+                    case Globals.PAYMENTS:
+                        out.writeInt(1000 + random.nextInt(9001));
+                        break;
+                    case Globals.BETAS:
+                        out.writeFloat(Math.round(alpha * (40 + random.nextInt(60))) / 100f);
+                        break;
+                    case Globals.IS_FCC:
+                    case Globals.IS_RURAL:
+                        out.writeInt(random.nextInt(10) == 0 ? 1 : 0);
+                        break;
+                }
+            }
+            out.endLine();
+        }
+    }
+
+    /**
+     * @return the bandwidth of a node under the configured distribution, -1 for unlimited
+     */
+    private int nodeBandwidth(int node, SplittableRandom random) {
+        if (this.bandwidth.equals("unlimited")) {
+            return -1;
+        }
+        if (this.bandwidth.equals("degree")) {
+            return Math.max(1, degree(node));
+        }
+        if (this.bandwidth.startsWith("uniform:")) {
+            String[] range = this.bandwidth.substring("uniform:".length()).split("-");
+            int low = Integer.parseInt(range[0]);
+            int high = Integer.parseInt(range[1]);
+            return low + random.nextInt(high - low + 1);
+        }
+        throw new IllegalArgumentException("Unknown bandwidth distribution " + this.bandwidth);
+    }
+
+    /**
+     * @return the number of neighbors a node was written with
+     */
+    private int degree(int node) {
+        switch (this.topology) {
+            case GRID:
+                int width = gridWidth();
+                return (node >= width ? 1 : 0) + (node % width > 0 ? 1 : 0)
+                        + (node % width < width - 1 && node + 1 < this.nodes ? 1 : 0)
+                        + (node + width < this.nodes ? 1 : 0);
+            case TREE:
+                int parentAndSiblings = 0;
+                if (node > 0) {
+                    parentAndSiblings = 1 + (node > 1 && (node - 2) / this.fanout == (node - 1) / this.fanout ? 1 : 0)
+                            + (node + 1 < this.nodes && node / this.fanout == (node - 1) / this.fanout ? 1 : 0);
+                }
+                long children = Math.max(0, Math.min((long) node * this.fanout + this.fanout, this.nodes - 1L)
+                        - (long) node * this.fanout);
+                return parentAndSiblings + (int) children;
+            default:
+                return this.degrees[node];
+        }
+    }
+
+    private int gridWidth() {
+        return (int) Math.ceil(Math.sqrt(this.nodes));
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads a counter into 64 random looking bits
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
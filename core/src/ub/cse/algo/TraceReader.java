@@ -0,0 +1,215 @@
+package ub.cse.algo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Replays a trace written by TraceRecorder, and works out from it how long
+ * packets waited at every router and how full every router's queue was on
+ * every tick. The events are decoded straight from the mapped file, a
+ * window at a time, so a replay does not load the trace into memory
+ */
+class TraceReader {
+    private static final long WINDOW_BYTES = 1L << 26;
+
+    private final Path path;
+    private final int nodes;
+    private final int packets;
+    private final int ticks;
+    private final long events;
+    private final long eventBytes;
+
+    /**
+     * Receives the events of a replay in the order they happened
+     */
+    interface Visitor {
+        /**
+         * @param tick: the tick it happened on
+         * @param router: ID of the router
+         * @param slot: client slot of the packet
+         * @param waited: ticks the packet waited at the router before this one
+         * @param kind: TraceRecorder.FORWARDED, DROPPED or STALLED
+         */
+        void event(int tick, int router, int slot, int waited, int kind);
+    }
+
+    /**
+     * @param path: the trace to read
+     * @throws IOException if the file can not be read or is not a finished trace
+     */
+    TraceReader(Path path) throws IOException {
+        this.path = path;
+        ByteBuffer header = ByteBuffer.allocate(TraceRecorder.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        header.flip();
+        if (header.remaining() < TraceRecorder.HEADER_BYTES || header.getInt() != TraceRecorder.MAGIC
+                || header.getInt() != TraceRecorder.VERSION) {
+            throw new IOException(path + " is not a finished trace");
+        }
+        this.nodes = header.getInt();
+        this.packets = header.getInt();
+        this.ticks = header.getInt();
+        header.getInt();
+        this.events = header.getLong();
+        this.eventBytes = header.getLong();
+        if (size != TraceRecorder.HEADER_BYTES + this.eventBytes) {
+            throw new IOException(path + " does not have the length its header gives");
+        }
+    }
+
+    /**
+     * @return number of nodes in the network
+     */
+    int nodes() {
+        return this.nodes;
+    }
+
+    /**
+     * @return number of packets, one per client slot
+     */
+    int packets() {
+        return this.packets;
+    }
+
+    /**
+     * @return the last tick anything happened on
+     */
+    int ticks() {
+        return this.ticks;
+    }
+
+    /**
+     * @return the number of events in the trace
+     */
+    long events() {
+        return this.events;
+    }
+
+    /**
+     * Decodes every event in order
+     *
+     * @param visitor: receives the events
+     * @throws IOException if the file can not be read or is damaged
+     */
+    void replay(Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            Input in = new Input(channel, this.eventBytes);
+            int tick = 0;
+            int router = 0;
+            long seen = 0;
+            while (in.hasRemaining()) {
+                long value = in.readVarint();
+                int tag = (int) (value & 3);
+                value >>>= 2;
+                if (tag == TraceRecorder.TICK) {
+                    tick += (int) value;
+                } else if (tag == TraceRecorder.ROUTER) {
+                    router += (int) ((value >>> 1) ^ -(value & 1));
+                } else if (tag == TraceRecorder.EVENT) {
+                    long waited = in.readVarint();
+                    visitor.event(tick, router, (int) value, (int) (waited >>> 2), (int) (waited & 3));
+                    seen++;
+                } else {
+                    throw new IOException(this.path + " has an unknown record");
+                }
+            }
+            if (seen != this.events) {
+                throw new IOException(this.path + " has " + seen + " events, its header gives " + this.events);
+            }
+        }
+    }
+
+    /**
+     * @return the ticks packets spent waiting at every router, summed over the packets, indexed by node ID
+     * @throws IOException if the file can not be read or is damaged
+     */
+    long[] waitingTicks() throws IOException {
+        long[] waiting = new long[this.nodes];
+        replay((tick, router, slot, waited, kind) -> waiting[router] += waited);
+        return waiting;
+    }
+
+    /**
+     * Rebuilds a router's queue over the run. A packet is in the queue from the
+     * tick it becomes ready to leave through the tick it leaves on, and a
+     * stalled packet until the end
+     *
+     * @param router: ID of the router
+     * @return the number of packets waiting at the router at the start of every tick, indexed by tick
+     * @throws IOException if the file can not be read or is damaged
+     */
+    int[] queueDepth(int router) throws IOException {
+        // Changes in depth by tick, summed up afterwards
+        int[] depth = new int[this.ticks + 2];
+        replay((tick, at, slot, waited, kind) -> {
+            if (at != router) {
+                return;
+            }
+            depth[tick - waited]++;
+            if (kind != TraceRecorder.STALLED) {
+                depth[tick + 1]--;
+            }
+        });
+        for (int tick = 1; tick < depth.length; ++tick) {
+            depth[tick] += depth[tick - 1];
+        }
+        return Arrays.copyOf(depth, this.ticks + 1);
+    }
+
+    /**
+     * Bytes of the event section, mapped a window at a time
+     */
+    private static final class Input {
+        private final FileChannel channel;
+        private final long end;
+        private long mapped = TraceRecorder.HEADER_BYTES;
+        private MappedByteBuffer window;
+
+        private Input(FileChannel channel, long eventBytes) {
+            this.channel = channel;
+            this.end = TraceRecorder.HEADER_BYTES + eventBytes;
+        }
+
+        private boolean hasRemaining() throws IOException {
+            if (this.window != null && this.window.hasRemaining()) {
+                return true;
+            }
+            if (this.mapped >= this.end) {
+                return false;
+            }
+            long length = Math.min(WINDOW_BYTES, this.end - this.mapped);
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.mapped, length);
+            this.mapped += length;
+            return true;
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (!hasRemaining()) {
+                    throw new IOException("Trace ends inside a record");
+                }
+                byte b = this.window.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Trace has a varint longer than ten bytes");
+        }
+    }
+}
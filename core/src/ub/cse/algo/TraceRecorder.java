@@ -0,0 +1,210 @@
+package ub.cse.algo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Records what every router did with every packet during one simulation,
+ * for finding out which routers held which packets back. Read it back with
+ * TraceReader.
+ *
+ * There is one event per packet per router it leaves: the tick, the router,
+ * the client slot, how many ticks the packet waited there first and what
+ * happened to it. Waiting is counted instead of logging every tick a packet
+ * stalls, so a trace grows with the hops and not with the queue lengths.
+ * Every value is a varint and the tick and router are only written when they
+ * change, which comes to four to six bytes per event on the sample inputs,
+ * most of it the client slot and the ticks waited. The events are
+ * collected in a preallocated buffer that is copied into the memory-mapped
+ * file whenever it fills up.
+ *
+ * Layout (little endian):
+ *     header:  magic, version, nodes, packets, last tick, a reserved int,
+ *              number of events, number of event bytes
+ *     events:  records, each starting with a varint whose low two bits say
+ *              what it is: a tick (the rest is the change since the last one),
+ *              a router (the rest is the change since the last one, zigzag
+ *              encoded) or an event (the rest is the client slot, followed by
+ *              a varint of the ticks waited shifted left two bits and the kind)
+ *
+ * The header is filled in on close, a trace that was not closed does not read
+ */
+class TraceRecorder implements AutoCloseable {
+    static final int MAGIC = 0x4D505452;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 6 * Integer.BYTES + 2 * Long.BYTES;
+
+    // What happened to the packet at the router
+    // Sent on to the next router of its path, or to its client
+    static final int FORWARDED = 0;
+    // Sent over a link that does not exist, it goes no further
+    static final int DROPPED = 1;
+    // Stuck at a router without bandwidth, it never leaves
+    static final int STALLED = 2;
+
+    // Low two bits of the first varint of every record
+    static final int EVENT = 0;
+    static final int ROUTER = 1;
+    static final int TICK = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Longest record: three varints of up to ten bytes
+    private static final int MAX_RECORD_BYTES = 30;
+    private static final long WINDOW_BYTES = 1L << 26;
+
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    // Next free byte in the buffer
+    private int position;
+    // Part of the file the buffer is copied into, and the event bytes copied so far
+    private MappedByteBuffer window;
+    private long written;
+
+    private int nodes;
+    private int packets;
+    private long events;
+    // The tick every packet started waiting at its current router on
+    private int[] waitingSince;
+    // Tick and router of the last event
+    private int tick;
+    private int router;
+    private boolean closed;
+
+    /**
+     * @param path: the file to write, replaced if it exists
+     * @throws IOException if the file can not be opened
+     */
+    TraceRecorder(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Starts recording a run, a recorder holds a single one
+     *
+     * @param nodes: number of nodes in the network
+     * @param packets: number of packets, one per client slot
+     */
+    void begin(int nodes, int packets) {
+        if (this.waitingSince != null || this.closed) {
+            throw new IllegalStateException("A trace records a single run");
+        }
+        this.nodes = nodes;
+        this.packets = packets;
+        // Every packet waits at the content provider from the first tick on
+        this.waitingSince = new int[packets];
+        Arrays.fill(this.waitingSince, 1);
+    }
+
+    /**
+     * Records a packet leaving a router, or getting stuck at it
+     *
+     * @param tick: the tick it happened on
+     * @param router: ID of the router
+     * @param slot: client slot of the packet
+     * @param kind: FORWARDED, DROPPED or STALLED
+     */
+    void record(int tick, int router, int slot, int kind) {
+        if (this.position > BUFFER_SIZE - MAX_RECORD_BYTES) {
+            drain();
+        }
+        boolean newTick = tick != this.tick;
+        if (newTick) {
+            writeVarint(((long) (tick - this.tick) << 2) | TICK);
+            this.tick = tick;
+        }
+        if (newTick || router != this.router) {
+            long change = (long) router - this.router;
+            writeVarint((((change << 1) ^ (change >> 63)) << 2) | ROUTER);
+            this.router = router;
+        }
+        writeVarint(((long) slot << 2) | EVENT);
+        writeVarint(((long) (tick - this.waitingSince[slot]) << 2) | kind);
+        // A forwarded packet waits at its next router from the next tick on
+        this.waitingSince[slot] = tick + 1;
+        this.events++;
+    }
+
+    /**
+     * @return the number of events recorded so far
+     */
+    long events() {
+        return this.events;
+    }
+
+    /**
+     * @return the number of bytes the trace takes so far, header included
+     */
+    long bytes() {
+        return HEADER_BYTES + this.written + this.position;
+    }
+
+    /**
+     * Writes out the rest of the events and the header, and cuts the file to its length
+     *
+     * @throws IOException if the file can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            drain();
+            if (this.window != null) {
+                this.window.force();
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(this.nodes).putInt(this.packets)
+                    .putInt(this.tick).putInt(0).putLong(this.events).putLong(this.written);
+            header.flip();
+            while (header.hasRemaining()) {
+                this.channel.write(header, header.position());
+            }
+            this.channel.truncate(HEADER_BYTES + this.written);
+            this.channel.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.position++] = (byte) value;
+    }
+
+    /**
+     * Copies the buffer into the mapped file, mapping the next window when one fills up
+     */
+    private void drain() {
+        try {
+            int offset = 0;
+            while (offset < this.position) {
+                if (this.window == null || !this.window.hasRemaining()) {
+                    this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + this.written,
+                            WINDOW_BYTES);
+                }
+                int length = Math.min(this.position - offset, this.window.remaining());
+                this.window.put(this.buffer, offset, length);
+                offset += length;
+                this.written += length;
+            }
+            this.position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Pair;
+
+import java.util.*;
+
+class Traversals {
+
+    /**
+     * How the shortest path helpers run their BFS
+     */
+    enum Strategy {
+        // Plain queue based BFS, parents follow the input's neighbor order
+        TOP_DOWN,
+        // DirectionOptimizingBfs on the calling thread
+        DIRECTION_OPTIMIZING,
+        // DirectionOptimizingBfs with every level expanded on the fork-join pool
+        PARALLEL
+    }
+
+    /**
+     * Finds the length of the shortest path to all client nodes
+     * using BFS. The result is a HashMap with the keys being client
+     * IDs and the values being the path length
+     *
+     * @param graph: Graph object representing the network
+     * @param clients: List of Clients
+     * @return Map of Client IDs to the length of the shortest path
+     */
+    static HashMap<Integer, Integer> bfs(Graph graph, List<Client> clients){
+        return bfs(graph.adjacency, clients);
+    }
+
+    /**
+     * Same as bfs(Graph, List) but runs directly on the compact graph
+     *
+     * @param graph: compact graph representing the network
+     * @param clients: List of Clients
+     * @return Map of Client IDs to the length of the shortest path
+     */
+    static HashMap<Integer, Integer> bfs(Adjacency graph, List<Client> clients){
+        return bfs(graph, clients, Strategy.TOP_DOWN);
+    }
+
+    /**
+     * Same as bfs(Graph, List) but with a choice of BFS strategy
+     *
+     * @param graph: Graph object representing the network
+     * @param clients: List of Clients
+     * @param strategy: how to run the BFS
+     * @return Map of Client IDs to the length of the shortest path
+     */
+    static HashMap<Integer, Integer> bfs(Graph graph, List<Client> clients, Strategy strategy){
+        return bfs(graph.adjacency, clients, strategy);
+    }
+
+    /**
+     * Same as bfs(Adjacency, List) but with a choice of BFS strategy
+     *
+     * @param graph: compact graph representing the network
+     * @param clients: List of Clients
+     * @param strategy: how to run the BFS
+     * @return Map of Client IDs to the length of the shortest path
+     */
+    static HashMap<Integer, Integer> bfs(Adjacency graph, List<Client> clients, Strategy strategy){
+        // Shared with every other user of this network
+        int[] distances = DistanceCache.shared(graph, strategy);
+
+        // Get all the distances to the clients only
+        HashMap<Integer, Integer> clientDistances = new HashMap<>(clients.size());
+        for (Client client : clients) {
+            clientDistances.put(client.id, distances[client.id]);
+        }
+        return clientDistances;
+    }
+
+    /**
+     * Finds the length of the shortest path from the content
+     * provider to every node using the given BFS strategy
+     *
+     * @param graph: compact graph representing the network
+     * @param strategy: how to run the BFS
+     * @return array of distances indexed by node ID, -1 if unreachable
+     */
+    static int[] distances(Adjacency graph, Strategy strategy) {
+        if (strategy == Strategy.TOP_DOWN) {
+            return distances(graph);
+        }
+        return DirectionOptimizingBfs.run(graph, strategy == Strategy.PARALLEL).distances;
+    }
+
+    /**
+     * Finds the length of the shortest path from the content
+     * provider to every node using the plain top-down BFS
+     *
+     * @param graph: compact graph representing the network
+     * @return array of distances indexed by node ID, -1 if unreachable
+     */
+    static int[] distances(Adjacency graph) {
+        // Initialize the distances array for all nodes in the graph
+        int[] distances = new int[graph.size()];
+        Arrays.fill(distances, -1);
+        distances[graph.contentProvider()] = 0;
+
+        // Run BFS, every node enters the queue at most once
+        int[] queue = new int[graph.size()];
+        int head = 0, tail = 0;
+        queue[tail++] = graph.contentProvider();
+        while (head < tail) {
+            int node = queue[head++];
+
+            for (long e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; ++e) {
+                int neighbor = graph.target(e);
+                if (distances[neighbor] == -1) {
+                    distances[neighbor] = distances[node] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Finds the shortest path to all the clients using BFS
+     *
+     * @param graph: Graph object representing the network
+     * @param clients: List of the Clients
+     * @return Map of Client IDs to an ArrayList representing
+     *          the path from ISP to Client
+     */
+    static HashMap<Integer, ArrayList<Integer>> bfsPaths(Graph graph, ArrayList<Client> clients){
+        return bfsPaths(graph.adjacency, clients);
+    }
+
+    /**
+     * Same as bfsPaths(Graph, ArrayList) but runs directly on the compact graph
+     *
+     * @param graph: compact graph representing the network
+     * @param clients: List of the Clients
+     * @return Map of Client IDs to an ArrayList representing
+     *          the path from ISP to Client
+     */
+    static HashMap<Integer, ArrayList<Integer>> bfsPaths(Adjacency graph, ArrayList<Client> clients){
+        return bfsPaths(graph, clients, Strategy.TOP_DOWN);
+    }
+
+    /**
+     * Same as bfsPaths(Graph, ArrayList) but with a choice of BFS strategy.
+     * Every strategy finds shortest paths, but when there are ties the
+     * direction-optimizing ones may pick a different one
+     *
+     * @param graph: Graph object representing the network
+     * @param clients: List of the Clients
+     * @param strategy: how to run the BFS
+     * @return Map of Client IDs to an ArrayList representing
+     *          the path from ISP to Client
+     */
+    static HashMap<Integer, ArrayList<Integer>> bfsPaths(Graph graph, ArrayList<Client> clients, Strategy strategy){
+        return bfsPaths(graph.adjacency, clients, strategy);
+    }
+
+    /**
+     * Same as bfsPaths(Adjacency, ArrayList) but with a choice of BFS strategy
+     *
+     * @param graph: compact graph representing the network
+     * @param clients: List of the Clients
+     * @param strategy: how to run the BFS
+     * @return Map of Client IDs to an ArrayList representing
+     *          the path from ISP to Client
+     */
+    static HashMap<Integer, ArrayList<Integer>> bfsPaths(Adjacency graph, ArrayList<Client> clients, Strategy strategy){
+        // Get the final shortest paths
+        return pathsFromPriors(clients, priors(graph, strategy));
+    }
+
+    /**
+     * Finds every node's parent in the BFS tree rooted at the content provider
+     *
+     * @param graph: compact graph representing the network
+     * @param strategy: how to run the BFS
+     * @return array of prior IDs indexed by node ID, -1 for the
+     *          content provider and unreachable nodes
+     */
+    static int[] priors(Adjacency graph, Strategy strategy) {
+        if (strategy == Strategy.TOP_DOWN) {
+            return priors(graph);
+        }
+        return DirectionOptimizingBfs.run(graph, strategy == Strategy.PARALLEL).priors;
+    }
+
+    /**
+     * Finds every node's parent in the tree of the plain top-down BFS
+     *
+     * @param graph: compact graph representing the network
+     * @return array of prior IDs indexed by node ID, -1 for the
+     *          content provider and unreachable nodes
+     */
+    static int[] priors(Adjacency graph) {
+        /*
+            Initialize the prior array with -1 for storing the node
+            that is before the current one in the shortest paths
+         */
+        int[] priors = new int[graph.size()];
+        Arrays.fill(priors, -1);
+
+        // Run BFS, finding the nodes parent in the shortest path
+        int[] queue = new int[graph.size()];
+        int head = 0, tail = 0;
+        queue[tail++] = graph.contentProvider();
+        while (head < tail) {
+            int node = queue[head++];
+            for (long e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; ++e) {
+                int neighbor = graph.target(e);
+                if (priors[neighbor] == -1 && neighbor != graph.contentProvider()) {
+                    priors[neighbor] = node;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return priors;
+    }
+
+    /**
+     * Helper function to turn prior array to a Map of Paths
+     *
+     * @param clients: List of Clients
+     * @param priors: Array of prior IDs
+     * @return Map of Client IDs to an ArrayList representing
+     *          the path created from the priors
+     */
+    private static HashMap<Integer, ArrayList<Integer>> pathsFromPriors(ArrayList<Client> clients, int[] priors) {
+        HashMap<Integer, ArrayList<Integer>> paths = new HashMap<>(clients.size());
+        // For every client, traverse the prior array, creating the path
+        for (Client client : clients) {
+            ArrayList<Integer> path = new ArrayList<>();
+            int currentNode = client.id;
+            while (currentNode != -1) {
+                /*
+                    Add this ID to the beginning of the
+                    path so the path ends with the client
+                 */
+                path.add(0, currentNode);
+                currentNode = priors[currentNode];
+            }
+            paths.put(client.id, path);
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,33 @@
+package ub.cse.algo.util;
+
+/**
+ * Initial table size of the open-addressing tables in this package, shared
+ * so they size their tables the same way
+ */
+final class HashCapacity {
+    // Largest power of two an int indexed array can hold
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashCapacity() {
+    }
+
+    /**
+     * Computed in long, an int product overflows for tens of millions of keys
+     *
+     * @param expected: number of keys expected
+     * @param maxLoadPercent: highest share of the slots taken before the table grows
+     * @return the smallest power of two, at least 8 and at most MAX_CAPACITY, that holds them
+     */
+    static int forExpected(long expected, int maxLoadPercent) {
+        long capacity = Math.min(Math.max(expected * 100L / maxLoadPercent, 8), MAX_CAPACITY);
+        return Integer.highestOneBit((int) capacity - 1) << 1;
+    }
+
+    /**
+     * @param maxLoadPercent: highest share of the slots taken before the table grows
+     * @return the most keys a table of MAX_CAPACITY slots is sized for
+     */
+    static int maxExpected(int maxLoadPercent) {
+        return (int) ((long) MAX_CAPACITY * maxLoadPercent / 100);
+    }
+}
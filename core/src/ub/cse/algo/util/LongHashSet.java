@@ -0,0 +1,112 @@
+package ub.cse.algo.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive longs with linear probing.
+ * Avoids boxing every element the way HashSet<Long> would
+ */
+public class LongHashSet {
+    // Marks an empty slot, the value itself is tracked separately
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MAX_LOAD_PERCENT = 50;
+    // Most values the constructor sizes the table for, larger sets grow from there
+    public static final int MAX_EXPECTED = HashCapacity.maxExpected(MAX_LOAD_PERCENT);
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean hasEmptyValue;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expected: number of values expected, capped at MAX_EXPECTED, the table grows as needed
+     */
+    public LongHashSet(int expected) {
+        int capacity = HashCapacity.forExpected(expected, MAX_LOAD_PERCENT);
+        this.table = new long[capacity];
+        Arrays.fill(this.table, EMPTY);
+        this.mask = capacity - 1;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param value: value to add
+     * @return true if the value was not in the set yet
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (this.hasEmptyValue) {
+                return false;
+            }
+            this.hasEmptyValue = true;
+            this.size++;
+            return true;
+        }
+        int i = slot(value);
+        while (this.table[i] != EMPTY) {
+            if (this.table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & this.mask;
+        }
+        this.table[i] = value;
+        if (++this.size * 100L > (long) this.table.length * MAX_LOAD_PERCENT) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * @param value: value to look for
+     * @return true if the value is in the set
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return this.hasEmptyValue;
+        }
+        int i = slot(value);
+        long current;
+        while ((current = this.table[i]) != EMPTY) {
+            if (current == value) {
+                return true;
+            }
+            i = (i + 1) & this.mask;
+        }
+        return false;
+    }
+
+    private void grow() {
+        long[] old = this.table;
+        this.table = new long[old.length * 2];
+        Arrays.fill(this.table, EMPTY);
+        this.mask = this.table.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int i = slot(value);
+                while (this.table[i] != EMPTY) {
+                    i = (i + 1) & this.mask;
+                }
+                this.table[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of the value (the 64 bit murmur3 finalizer) before masking
+     */
+    private int slot(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return (int) value & this.mask;
+    }
+}
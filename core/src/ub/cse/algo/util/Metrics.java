@@ -0,0 +1,226 @@
+package ub.cse.algo.util;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Opt-in registry of phase timers and counters.
+ *
+ * Phases are timed by handing them to time:
+ *     int[] delays = Metrics.time("simulate", () -> EventSimulator.run(graph, sol));
+ * or, for a phase that is not a single expression, by closing the timer:
+ *     Metrics.Timer timer = Metrics.time("parse");
+ *     try {
+ *         ...
+ *     } finally {
+ *         timer.close();
+ *     }
+ * Every timer records its calls, wall time and the bytes the calling thread
+ * allocated meanwhile (through com.sun.management.ThreadMXBean, so work
+ * handed to other threads is not counted). Timers may nest.
+ *
+ * Until enable() is called, time() hands out one shared timer that does
+ * nothing and count() returns right away, so instrumented code costs a
+ * static field read
+ */
+public final class Metrics {
+    private static final Timer DISABLED = new Timer(null);
+
+    private static volatile boolean enabled;
+    // Looked up on enable() so a disabled registry never touches JMX, null if unsupported
+    private static com.sun.management.ThreadMXBean threads;
+    // Guarded by the class lock, kept in the order names were first seen
+    private static final Map<String, long[]> timers = new LinkedHashMap<>();
+    private static final Map<String, Long> counters = new LinkedHashMap<>();
+
+    // Slots of a timer's statistics
+    private static final int CALLS = 0;
+    private static final int NANOS = 1;
+    private static final int MAX_NANOS = 2;
+    private static final int ALLOCATED = 3;
+
+    private Metrics() {
+    }
+
+    /**
+     * Starts recording from now on
+     */
+    public static synchronized void enable() {
+        threads = allocationBean();
+        enabled = true;
+    }
+
+    /**
+     * @return true if timers and counters are recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Drops everything recorded so far
+     */
+    public static synchronized void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * @param name: name of the phase
+     * @return a running timer to close when the phase ends
+     */
+    public static Timer time(String name) {
+        if (!enabled) {
+            return DISABLED;
+        }
+        // Register on start so phases are listed in the order they began
+        synchronized (Metrics.class) {
+            timers.computeIfAbsent(name, key -> new long[4]);
+        }
+        return new Timer(name);
+    }
+
+    /**
+     * Times a phase that returns a value
+     *
+     * @param name: name of the phase
+     * @param phase: the work to time
+     * @return what the phase returned
+     * @throws E whatever the phase throws
+     */
+    public static <T, E extends Exception> T time(String name, Phase<T, E> phase) throws E {
+        Timer timer = time(name);
+        try {
+            return phase.run();
+        } finally {
+            timer.close();
+        }
+    }
+
+    /**
+     * @param name: name of the counter
+     * @param delta: amount to add to it
+     */
+    public static void count(String name, long delta) {
+        if (enabled) {
+            synchronized (Metrics.class) {
+                counters.merge(name, delta, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Prints what was recorded as a table
+     *
+     * @param out: where to print
+     */
+    public static synchronized void printTable(PrintStream out) {
+        out.println(String.format("%-24s %8s %12s %12s %14s", "Phase", "Calls", "Total ms", "Max ms", "Allocated MB"));
+        for (Map.Entry<String, long[]> entry : timers.entrySet()) {
+            long[] stats = entry.getValue();
+            out.println(String.format(Locale.ROOT, "%-24s %8d %12.3f %12.3f %14s", entry.getKey(), stats[CALLS],
+                    stats[NANOS] / 1e6, stats[MAX_NANOS] / 1e6,
+                    stats[ALLOCATED] < 0 ? "n/a" : String.format(Locale.ROOT, "%.3f", stats[ALLOCATED] / 1048576.0)));
+        }
+        if (!counters.isEmpty()) {
+            out.println();
+            out.println(String.format("%-24s %12s", "Counter", "Value"));
+            for (Map.Entry<String, Long> entry : counters.entrySet()) {
+                out.println(String.format("%-24s %12d", entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Prints what was recorded as a JSON object with "timers" and "counters"
+     *
+     * @param out: where to print
+     */
+    public static synchronized void printJson(PrintStream out) {
+        ArrayList<String> entries = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : timers.entrySet()) {
+            long[] stats = entry.getValue();
+            entries.add(String.format(Locale.ROOT,
+                    "    \"%s\": {\"calls\": %d, \"totalMs\": %.3f, \"maxMs\": %.3f, \"allocatedBytes\": %d}",
+                    entry.getKey(), stats[CALLS], stats[NANOS] / 1e6, stats[MAX_NANOS] / 1e6, stats[ALLOCATED]));
+        }
+        out.println("{");
+        out.println("  \"timers\": {");
+        out.println(String.join(",\n", entries));
+        out.println("  },");
+        entries.clear();
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            entries.add(String.format("    \"%s\": %d", entry.getKey(), entry.getValue()));
+        }
+        out.println("  \"counters\": {");
+        out.println(String.join(",\n", entries));
+        out.println("  }");
+        out.println("}");
+    }
+
+    private static synchronized void record(String name, long nanos, long allocated) {
+        long[] stats = timers.get(name);
+        stats[CALLS]++;
+        stats[NANOS] += nanos;
+        stats[MAX_NANOS] = Math.max(stats[MAX_NANOS], nanos);
+        // -1 marks a JVM that can not measure allocations
+        stats[ALLOCATED] = (allocated < 0 || stats[ALLOCATED] < 0) ? -1 : stats[ALLOCATED] + allocated;
+    }
+
+    /**
+     * @return -1 if this JVM can not tell how much the current thread allocated
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = threads;
+        return bean == null ? -1 : bean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Work timed by time(String, Phase), which may throw a checked exception
+     */
+    @FunctionalInterface
+    public interface Phase<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * A running phase timer, recorded when closed
+     */
+    public static final class Timer implements AutoCloseable {
+        private final String name;
+        private final long start;
+        private final long allocatedAtStart;
+
+        private Timer(String name) {
+            this.name = name;
+            this.allocatedAtStart = name == null ? 0 : allocatedBytes();
+            this.start = name == null ? 0 : System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (this.name != null) {
+                long nanos = System.nanoTime() - this.start;
+                long allocated = this.allocatedAtStart < 0 ? -1 : allocatedBytes() - this.allocatedAtStart;
+                record(this.name, nanos, allocated);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ub.cse.algo.util;
+
+import java.util.Arrays;
+
+/**
+ * Stable least significant digit radix sort of int keys, one byte per pass.
+ * Takes linear time where Arrays.sort on packed long keys takes n log n, and
+ * skips the passes where every key has the same byte, so small keys cost
+ * one or two passes
+ */
+public class RadixSort {
+    private static final int RADIX = 256;
+
+    private RadixSort() {
+    }
+
+    /**
+     * @param keys: key of every index
+     * @return the indices ordered by key ascending, equal keys keep their index order
+     */
+    public static int[] order(int[] keys) {
+        int[] items = new int[keys.length];
+        for (int i = 0; i < items.length; ++i) {
+            items[i] = i;
+        }
+        sortBy(items, keys);
+        return items;
+    }
+
+    /**
+     * Stably sorts the items in place by their keys ascending
+     *
+     * @param items: indices into keys
+     * @param keys: key of every index
+     */
+    public static void sortBy(int[] items, int[] keys) {
+        int[] from = items;
+        int[] to = new int[items.length];
+        int[] counts = new int[RADIX];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int item : from) {
+                counts[digit(keys[item], shift)]++;
+            }
+            if (from.length == 0 || counts[digit(keys[from[0]], shift)] == from.length) {
+                // Every key has the same byte here, the order does not change
+                continue;
+            }
+            for (int d = 0, offset = 0; d < RADIX; ++d) {
+                int count = counts[d];
+                counts[d] = offset;
+                offset += count;
+            }
+            for (int item : from) {
+                to[counts[digit(keys[item], shift)]++] = item;
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != items) {
+            System.arraycopy(from, 0, items, 0, items.length);
+        }
+    }
+
+    /**
+     * Flips the sign bit so negative keys come before positive ones as unsigned bytes
+     */
+    private static int digit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1);
+    }
+}
@@ -0,0 +1,210 @@
+package ub.cse.algo.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Number of packets reserved on every (router, tick) pair, kept in an
+ * open-addressing table of primitive long keys and int counts with linear
+ * probing. Avoids boxing every reservation the way nested HashMaps would.
+ *
+ * Routers and ticks are non-negative ints, a tick may also be a depth along
+ * the paths. Released cells keep their slot until the table grows, so a
+ * table that is filled and emptied again does not churn memory
+ */
+public class ReservationTable {
+    // Marks an empty slot, keys are never negative
+    private static final long EMPTY = -1L;
+    private static final int MAX_LOAD_PERCENT = 50;
+
+    private long[] keys;
+    private int[] counts;
+    private int mask;
+    // Slots taken by a key, reserved or released
+    private int used;
+
+    public ReservationTable() {
+        this(16);
+    }
+
+    /**
+     * @param expected: number of (router, tick) pairs expected, the table grows as needed
+     */
+    public ReservationTable(int expected) {
+        int capacity = HashCapacity.forExpected(expected, MAX_LOAD_PERCENT);
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Reserves one packet on the router at the tick
+     *
+     * @param router: ID of the router
+     * @param tick: the tick
+     * @return the number of packets reserved there now
+     */
+    public int reserve(int router, int tick) {
+        long key = key(router, tick);
+        int i = slot(key);
+        while (this.keys[i] != EMPTY) {
+            if (this.keys[i] == key) {
+                return ++this.counts[i];
+            }
+            i = (i + 1) & this.mask;
+        }
+        this.keys[i] = key;
+        this.counts[i] = 1;
+        if (++this.used * 100L > (long) this.keys.length * MAX_LOAD_PERCENT) {
+            grow();
+        }
+        return 1;
+    }
+
+    /**
+     * Releases one packet reserved on the router at the tick
+     *
+     * @param router: ID of the router
+     * @param tick: the tick
+     * @return the number of packets reserved there now
+     * @throws IllegalStateException if nothing is reserved there
+     */
+    public int release(int router, int tick) {
+        int i = find(key(router, tick));
+        if (i < 0 || this.counts[i] == 0) {
+            throw new IllegalStateException("Nothing is reserved on router " + router + " at tick " + tick);
+        }
+        return --this.counts[i];
+    }
+
+    /**
+     * @param router: ID of the router
+     * @param tick: the tick
+     * @return the number of packets reserved on the router at the tick
+     */
+    public int count(int router, int tick) {
+        int i = find(key(router, tick));
+        return i < 0 ? 0 : this.counts[i];
+    }
+
+    /**
+     * @param router: ID of the router
+     * @param tick: the tick
+     * @param capacity: number of packets the router can take per tick
+     * @return true if another packet fits on the router at the tick
+     */
+    public boolean available(int router, int tick, int capacity) {
+        return count(router, tick) < capacity;
+    }
+
+    /**
+     * @param router: ID of the router
+     * @param tick: the first tick to consider
+     * @param capacity: number of packets the router can take per tick, positive
+     * @return the first tick from the given one on where another packet fits on the router
+     */
+    public int firstAvailable(int router, int tick, int capacity) {
+        while (count(router, tick) >= capacity) {
+            tick++;
+        }
+        return tick;
+    }
+
+    /**
+     * Reserves a packet that moves along the path without waiting, on
+     * every router of it from the given tick on
+     *
+     * @param path: the routers in order
+     * @param tick: the tick to reserve on the first router
+     */
+    public void reservePath(List<Integer> path, int tick) {
+        for (int i = 0; i < path.size(); ++i) {
+            reserve(path.get(i), tick + i);
+        }
+    }
+
+    /**
+     * Releases what reservePath reserved
+     *
+     * @param path: the routers in order
+     * @param tick: the tick reserved on the first router
+     */
+    public void releasePath(List<Integer> path, int tick) {
+        for (int i = 0; i < path.size(); ++i) {
+            release(path.get(i), tick + i);
+        }
+    }
+
+    /**
+     * Releases everything, keeping the memory
+     */
+    public void clear() {
+        Arrays.fill(this.keys, EMPTY);
+        this.used = 0;
+    }
+
+    /**
+     * @return the index of the key's slot, -1 if it is not in the table
+     */
+    private int find(long key) {
+        int i = slot(key);
+        long current;
+        while ((current = this.keys[i]) != EMPTY) {
+            if (current == key) {
+                return i;
+            }
+            i = (i + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        int[] oldCounts = this.counts;
+        // Cells that were released are dropped, the table only doubles if
+        // the live ones alone would fill it past half the load limit
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != EMPTY && oldCounts[i] > 0) {
+                live++;
+            }
+        }
+        boolean crowded = live * 200L > (long) oldKeys.length * MAX_LOAD_PERCENT;
+        int capacity = crowded ? oldKeys.length * 2 : oldKeys.length;
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+        this.used = live;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            if (oldKeys[j] != EMPTY && oldCounts[j] > 0) {
+                int i = slot(oldKeys[j]);
+                while (this.keys[i] != EMPTY) {
+                    i = (i + 1) & this.mask;
+                }
+                this.keys[i] = oldKeys[j];
+                this.counts[i] = oldCounts[j];
+            }
+        }
+    }
+
+    private static long key(int router, int tick) {
+        if (router < 0 || tick < 0) {
+            throw new IllegalArgumentException("Routers and ticks can not be negative");
+        }
+        return ((long) router << 32) | tick;
+    }
+
+    /**
+     * Spreads the bits of the key (the 64 bit murmur3 finalizer) before masking
+     */
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & this.mask;
+    }
+}
@@ -0,0 +1,152 @@
+package ub.cse.algo.util;
+
+import java.util.Arrays;
+
+/**
+ * Bit set with a summary level above it, one bit per word below that is not
+ * all zero, repeated up to a single word. Finding the next set bit skips 64
+ * empty words per summary bit, so it looks at one word per level instead of
+ * scanning, which makes the set usable as a priority queue of small ints:
+ * set to add, nextSetBit to find the smallest, clear to remove it
+ */
+public class SummaryBitSet {
+    // levels[0] holds the bits, levels[k] one bit per word of levels[k - 1]
+    private long[][] levels;
+    private int capacity;
+
+    /**
+     * @param capacity: number of bits, the set grows as needed
+     */
+    public SummaryBitSet(int capacity) {
+        this.levels = allocate(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the number of bits the set holds without growing
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Makes room for the bits, keeping the ones set
+     *
+     * @param capacity: number of bits needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= this.capacity) {
+            return;
+        }
+        capacity = Math.max(capacity, this.capacity * 2);
+        long[][] levels = allocate(capacity);
+        System.arraycopy(this.levels[0], 0, levels[0], 0, this.levels[0].length);
+        for (int level = 1; level < levels.length; ++level) {
+            long[] below = levels[level - 1];
+            for (int w = 0; w < below.length; ++w) {
+                if (below[w] != 0) {
+                    levels[level][w >>> 6] |= 1L << w;
+                }
+            }
+        }
+        this.levels = levels;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param i: index of the bit
+     * @return true if the bit is set
+     */
+    public boolean get(int i) {
+        return (this.levels[0][i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * @param i: index of the bit to set
+     */
+    public void set(int i) {
+        for (long[] words : this.levels) {
+            int w = i >>> 6;
+            long before = words[w];
+            words[w] = before | (1L << i);
+            if (before != 0) {
+                // The levels above already know this word is not empty
+                return;
+            }
+            i = w;
+        }
+    }
+
+    /**
+     * @param i: index of the bit to clear
+     */
+    public void clear(int i) {
+        for (long[] words : this.levels) {
+            int w = i >>> 6;
+            words[w] &= ~(1L << i);
+            if (words[w] != 0) {
+                return;
+            }
+            i = w;
+        }
+    }
+
+    /**
+     * Clears every bit, keeping the memory
+     */
+    public void clear() {
+        for (long[] words : this.levels) {
+            Arrays.fill(words, 0);
+        }
+    }
+
+    /**
+     * @param from: index to start at
+     * @return the index of the first set bit from the given one on, -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("from < 0: " + from);
+        }
+        // Climb until a word has a set bit at or after the position
+        int i = from;
+        int level = 0;
+        while (true) {
+            if (level == this.levels.length) {
+                return -1;
+            }
+            long[] words = this.levels[level];
+            int w = i >>> 6;
+            if (w >= words.length) {
+                return -1;
+            }
+            long bits = words[w] & (-1L << i);
+            if (bits != 0) {
+                i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                break;
+            }
+            i = w + 1;
+            level++;
+        }
+        // Then follow the lowest set bits back down
+        while (level > 0) {
+            level--;
+            i = (i << 6) + Long.numberOfTrailingZeros(this.levels[level][i]);
+        }
+        return i;
+    }
+
+    private static long[][] allocate(int capacity) {
+        int words = Math.max((capacity + 63) >>> 6, 1);
+        int count = 1;
+        for (int n = words; n > 1; n = (n + 63) >>> 6) {
+            count++;
+        }
+        long[][] levels = new long[count][];
+        for (int level = 0; level < count; ++level) {
+            levels[level] = new long[words];
+            words = (words + 63) >>> 6;
+        }
+        return levels;
+    }
+}
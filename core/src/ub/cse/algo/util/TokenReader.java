@@ -0,0 +1,251 @@
+package ub.cse.algo.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads whitespace separated numbers from a file a buffer at a time.
+ * Ints are parsed straight out of the byte buffer, so reading a line
+ * does not create any Strings or split arrays
+ *
+ * Lines are walked with endOfLine and nextLine:
+ *     while (reader.hasNextLine()) {
+ *         while (!reader.endOfLine()) {
+ *             int value = reader.nextInt();
+ *         }
+ *         reader.nextLine();
+ *     }
+ */
+public class TokenReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Powers of ten that are exact as floats, used for the float fast path
+    private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    // Next unread byte and end of the valid bytes in the buffer
+    private int position;
+    private int limit;
+    private boolean eof;
+    // Scratch space for float tokens that need the slow path
+    private char[] token;
+
+    /**
+     * @param filename: name of the file to read
+     * @throws IOException if the file can not be opened
+     */
+    public TokenReader(String filename) throws IOException {
+        this(FileChannel.open(Paths.get(filename), StandardOpenOption.READ));
+    }
+
+    /**
+     * @param channel: channel to read from, closed along with this reader
+     */
+    public TokenReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+        this.token = new char[32];
+    }
+
+    /**
+     * @return true if there is anything left to read
+     * @throws IOException if reading fails
+     */
+    public boolean hasNextLine() throws IOException {
+        return this.position < this.limit || fill();
+    }
+
+    /**
+     * Skips spaces on the current line
+     *
+     * @return true if the current line has no more tokens
+     * @throws IOException if reading fails
+     */
+    public boolean endOfLine() throws IOException {
+        int b = skipBlanks();
+        return b == -1 || b == '\n';
+    }
+
+    /**
+     * Skips the rest of the current line, including the line break
+     *
+     * @throws IOException if reading fails
+     */
+    public void nextLine() throws IOException {
+        while (this.position < this.limit || fill()) {
+            if (this.bytes[this.position++] == '\n') {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parses the next token on the current line as an int
+     *
+     * @return the parsed value
+     * @throws IOException if reading fails
+     * @throws NumberFormatException if the token is not an int
+     */
+    public int nextInt() throws IOException {
+        int b = skipBlanks();
+        boolean negative = b == '-';
+        if (negative || b == '+') {
+            this.position++;
+            b = peek();
+        }
+        if (b < '0' || b > '9') {
+            throw new NumberFormatException("Expected an int but found " + describe(b));
+        }
+        long value = 0;
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Int out of range");
+            }
+            this.position++;
+            b = peek();
+        }
+        if (!isSeparator(b)) {
+            throw new NumberFormatException("Expected an int but found " + describe(b));
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Int out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the next token on the current line as a float. Plain decimals
+     * with few digits are computed directly, anything else is handed to
+     * Float.parseFloat so the result always matches it exactly
+     *
+     * @return the parsed value
+     * @throws IOException if reading fails
+     * @throws NumberFormatException if the token is not a float
+     */
+    public float nextFloat() throws IOException {
+        int b = skipBlanks();
+        int length = 0;
+        while (!isSeparator(b)) {
+            if (length == this.token.length) {
+                this.token = Arrays.copyOf(this.token, length * 2);
+            }
+            this.token[length++] = (char) b;
+            this.position++;
+            b = peek();
+        }
+        if (length == 0) {
+            throw new NumberFormatException("Expected a float but found " + describe(b));
+        }
+
+        // Fast path: at most 7 digits with at most 10 after the point are exact as floats
+        int i = 0;
+        boolean negative = this.token[0] == '-';
+        if (negative || this.token[0] == '+') {
+            i++;
+        }
+        int mantissa = 0, digits = 0, decimals = -1;
+        for (; i < length; ++i) {
+            char c = this.token[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == length && digits > 0 && digits <= 7 && decimals < POWERS_OF_TEN.length) {
+            float value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+            return negative ? -value : value;
+        }
+        return Float.parseFloat(new String(this.token, 0, length));
+    }
+
+    /**
+     * Skips the next token on the current line without parsing it
+     *
+     * @throws IOException if reading fails
+     */
+    public void skipToken() throws IOException {
+        int b = skipBlanks();
+        while (!isSeparator(b)) {
+            this.position++;
+            b = peek();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns
+     *
+     * @return the next byte, or -1 at the end of the file
+     */
+    private int skipBlanks() throws IOException {
+        int b = peek();
+        while (b == ' ' || b == '\t' || b == '\r') {
+            this.position++;
+            b = peek();
+        }
+        return b;
+    }
+
+    /**
+     * @return the next byte without consuming it, or -1 at the end of the file
+     */
+    private int peek() throws IOException {
+        if (this.position == this.limit && !fill()) {
+            return -1;
+        }
+        return this.bytes[this.position];
+    }
+
+    /**
+     * Refills the buffer once every byte in it has been consumed
+     *
+     * @return true if more bytes were read
+     */
+    private boolean fill() throws IOException {
+        if (this.eof) {
+            return false;
+        }
+        this.buffer.clear();
+        int read;
+        do {
+            read = this.channel.read(this.buffer);
+        } while (read == 0);
+        if (read < 0) {
+            this.eof = true;
+            this.position = this.limit = 0;
+            return false;
+        }
+        this.position = 0;
+        this.limit = read;
+        return true;
+    }
+
+    private static boolean isSeparator(int b) {
+        return b == -1 || b == ' ' || b == '\n' || b == '\t' || b == '\r';
+    }
+
+    private static String describe(int b) {
+        return b == -1 ? "end of file" : b == '\n' ? "end of line" : "'" + (char) b + "'";
+    }
+}
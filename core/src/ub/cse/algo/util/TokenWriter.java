@@ -0,0 +1,145 @@
+package ub.cse.algo.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes whitespace separated numbers to a file a buffer at a time, the
+ * counterpart of TokenReader. Ints are formatted straight into the byte
+ * buffer, so writing a line does not create any Strings
+ *
+ * Tokens on a line are separated by single spaces:
+ *     writer.writeInt(a).writeInt(b).endLine();
+ */
+public class TokenWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    // Next free byte in the buffer
+    private int position;
+    // Is the next token the first one on its line
+    private boolean lineStart = true;
+
+    /**
+     * @param filename: name of the file to write, replaced if it exists
+     * @throws IOException if the file can not be opened
+     */
+    public TokenWriter(String filename) throws IOException {
+        this(FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * @param channel: channel to write to, closed along with this writer
+     */
+    public TokenWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+    }
+
+    /**
+     * @param value: int to write as the next token
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public TokenWriter writeInt(int value) throws IOException {
+        // Sign and ten digits at most, plus the separator
+        reserve(12);
+        separate();
+        long remaining = value;
+        if (remaining < 0) {
+            this.bytes[this.position++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long bound = 10; bound <= remaining; bound *= 10) {
+            digits++;
+        }
+        for (int i = this.position + digits - 1; i >= this.position; --i) {
+            this.bytes[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        this.position += digits;
+        return this;
+    }
+
+    /**
+     * @param value: float to write as the next token, as Float.toString would
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public TokenWriter writeFloat(float value) throws IOException {
+        return writeToken(Float.toString(value));
+    }
+
+    /**
+     * @param token: ASCII text to write as the next token
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public TokenWriter writeToken(String token) throws IOException {
+        reserve(token.length() + 1);
+        separate();
+        for (int i = 0; i < token.length(); ++i) {
+            this.bytes[this.position++] = (byte) token.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Ends the current line
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public TokenWriter endLine() throws IOException {
+        reserve(1);
+        this.bytes[this.position++] = '\n';
+        this.lineStart = true;
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private void separate() {
+        if (!this.lineStart) {
+            this.bytes[this.position++] = ' ';
+        }
+        this.lineStart = false;
+    }
+
+    /**
+     * Makes room for the given number of bytes
+     */
+    private void reserve(int count) throws IOException {
+        if (this.position + count > this.bytes.length) {
+            flush();
+        }
+        if (count > this.bytes.length) {
+            throw new IOException("Token is longer than the write buffer");
+        }
+    }
+
+    private void flush() throws IOException {
+        this.buffer.clear().limit(this.position);
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.position = 0;
+    }
+}
@@ -0,0 +1,59 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Planned bandwidths against simulating and scoring them, and against the
+ * bandwidths the plan started from
+ */
+class BandwidthPlannerTest {
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void planMatchesSimulation(Testcases.Testcase testcase) {
+        // Bandwidth only has a price from problem 3 on
+        assumeTrue(testcase.problem >= 3);
+        Random random = new Random(25);
+        Info info = testcase.parse();
+        String message = testcase.toString();
+        SolutionObject sol = Testcases.randomSolution(info, random, false);
+        CompactSolution compact = CompactSolution.from(info.clients, sol);
+        int[] start = compact.bandwidths.clone();
+
+        BandwidthPlanner planner = new BandwidthPlanner(info);
+        int[] planned = planner.plan(compact, start);
+        assertArrayEquals(compact.bandwidths, start, message + ": the starting bandwidths were changed");
+
+        // The planner's delays and revenue are those of simulating the plan
+        CompactSolution plan = new CompactSolution(compact.clientIds, compact.pathOffsets, compact.pathPool,
+                compact.priorities, planned);
+        int[] delays = EventSimulator.run(info.graph.adjacency, plan);
+        assertArrayEquals(delays, planner.delays(), message);
+        boolean penalties = info.problem == 3 || info.problem == 4;
+        float revenue = Revenue.revenue(info, plan, delays, penalties, penalties, plan.bandwidthsChanged(info.bandwidths));
+        assertEquals(Float.floatToIntBits(revenue), Float.floatToIntBits(planner.revenue()), message);
+
+        // A plan never scores worse than where it started
+        int[] startDelays = EventSimulator.run(info.graph.adjacency, compact);
+        float startRevenue = Revenue.revenue(info, compact, startDelays, penalties, penalties,
+                compact.bandwidthsChanged(info.bandwidths));
+        assertTrue(revenue >= startRevenue, message + ": " + revenue + " < " + startRevenue);
+
+        // The map based overload plans the same
+        ArrayList<Integer> plannedList = new BandwidthPlanner(info).plan(sol, info.bandwidths);
+        ArrayList<Integer> expected = new ArrayList<>(planned.length);
+        for (int bandwidth : planned) {
+            expected.add(bandwidth);
+        }
+        assertEquals(expected, plannedList, message);
+    }
+}
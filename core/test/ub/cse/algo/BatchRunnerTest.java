@@ -0,0 +1,56 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The --batch summary, which has to stay JSON whatever the default locale
+ */
+class BatchRunnerTest {
+    private static final Pattern MILLIS = Pattern.compile("\"(\\w+Ms)\": ([^,}\\s]+)");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void summaryIgnoresDefaultLocale() throws IOException {
+        // Two copies of the bundled testcase, so the summary has more than one entry
+        for (String name : new String[]{"a.txt", "b.txt"}) {
+            Files.copy(Paths.get(Testcases.BUNDLED[0]), this.dir.resolve(name));
+            Files.copy(Paths.get(Testcases.BUNDLED[0] + "-info"), this.dir.resolve(name + "-info"));
+        }
+        Path summary = this.dir.resolve("summary.json");
+
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            BatchRunner.main(1, new String[]{this.dir.toString(), "--threads", "2", "--out", summary.toString()});
+        } finally {
+            Locale.setDefault(locale);
+        }
+
+        String json = new String(Files.readAllBytes(summary), StandardCharsets.UTF_8);
+        assertFalse(json.contains("\"error\""), json);
+        Matcher matcher = MILLIS.matcher(json);
+        int fields = 0;
+        while (matcher.find()) {
+            assertTrue(matcher.group(2).matches("\\d+\\.\\d{3}"), matcher.group());
+            fields++;
+        }
+        // wallMs, and the four phases of both testcases
+        assertEquals(9, fields, json);
+    }
+}
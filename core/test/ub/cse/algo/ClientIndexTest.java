@@ -0,0 +1,95 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * ClientIndex lookups against scanning info.clients the way the solutions
+ * used to
+ */
+class ClientIndexTest {
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void matchesClients(Testcases.Testcase testcase) {
+        assertMatchesClients(testcase.parse(), testcase.toString());
+    }
+
+    @Test
+    void duplicateAndOutOfRangeClients() {
+        ArrayList<Client> clients = new ArrayList<>(Arrays.asList(
+                new Client(2, 1f, 1f, 10, false, true),
+                new Client(2, 2f, 2f, 20, false, false),
+                new Client(7, 3f, 3f, 30, true, false)));
+        ClientIndex index = new ClientIndex(clients, 5);
+        assertEquals(3, index.size());
+        assertEquals(0, index.slot(2));
+        assertEquals(-1, index.slot(7));
+        assertEquals(-1, index.slot(-1));
+        assertFalse(index.isClient(5));
+        assertEquals(7, index.ids[2]);
+        assertEquals(1, index.fccCount);
+    }
+
+    @Test
+    void rebuiltWhenClientsChange() {
+        Info info = Testcases.parse(Testcases.problem(0), Testcases.BUNDLED[0]);
+        ClientIndex index = info.clientIndex();
+        assertSame(index, info.clientIndex());
+        Client removed = info.clients.remove(info.clients.size() - 1);
+        assertFalse(info.clientIndex().isClient(removed.id));
+        assertMatchesClients(info, "after removing a client");
+
+        // Same size, other order
+        Collections.reverse(info.clients);
+        assertMatchesClients(info, "after reversing the clients");
+        Collections.swap(info.clients, 0, 1);
+        assertMatchesClients(info, "after swapping two clients");
+
+        // Same size and IDs, another client object
+        Client first = info.clients.get(0);
+        info.clients.set(0, new Client(first.id, first.alpha + 1, first.beta + 1, first.payment + 1,
+                !first.isRural, !first.isFcc));
+        assertMatchesClients(info, "after replacing a client");
+
+        index = info.clientIndex();
+        assertSame(index, info.clientIndex());
+    }
+
+    private static void assertMatchesClients(Info info, String message) {
+        ClientIndex index = info.clientIndex();
+        assertEquals(info.clients.size(), index.size(), message);
+        int fccCount = 0;
+        for (int slot = 0; slot < info.clients.size(); ++slot) {
+            Client client = info.clients.get(slot);
+            assertEquals(client.id, index.ids[slot], message);
+            assertEquals(client.alpha, index.alphas[slot], message);
+            assertEquals(client.beta, index.betas[slot], message);
+            assertEquals(client.payment, index.payments[slot], message);
+            assertEquals(client.isRural, index.isRural[slot], message);
+            assertEquals(client.isFcc, index.isFcc[slot], message);
+            fccCount += client.isFcc ? 1 : 0;
+        }
+        assertEquals(fccCount, index.fccCount, message);
+
+        for (int node = 0; node < info.graph.size(); ++node) {
+            int expected = -1;
+            for (int slot = 0; slot < info.clients.size(); ++slot) {
+                if (info.clients.get(slot).id == node) {
+                    expected = slot;
+                    break;
+                }
+            }
+            assertEquals(expected, index.slot(node), message + " node " + node);
+        }
+    }
+}
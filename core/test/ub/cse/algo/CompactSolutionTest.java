@@ -0,0 +1,63 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CompactSolution against the SolutionObject it flattens, and the compact
+ * simulator and revenue overloads against the map based ones
+ */
+class CompactSolutionTest {
+
+    @Test
+    void roundTrip() {
+        Random random = new Random(7);
+        Info info = Testcases.parse(Testcases.problem(0), Testcases.BUNDLED[0]);
+        SolutionObject sol = Testcases.randomSolution(info, random, true);
+        for (Client client : info.clients) {
+            if (random.nextInt(8) == 0) {
+                sol.paths.remove(client.id);
+            }
+        }
+
+        CompactSolution compact = CompactSolution.from(info.clients, sol);
+        assertEquals(info.clients.size(), compact.slots());
+        SolutionObject expanded = compact.toSolutionObject();
+        assertEquals(sol.paths, expanded.paths);
+        assertEquals(sol.priorities, expanded.priorities);
+        assertEquals(sol.bandwidths, expanded.bandwidths);
+
+        HashMap<Integer, Integer> delays = Simulator.run(info.graph, info.clients, sol);
+        assertEquals(delays, CompactSolution.delaysById(info.clients, CompactSolution.delaysBySlot(info.clients, delays)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameScore(Testcases.Testcase testcase) {
+        Random random = new Random(7);
+        Info info = testcase.parse();
+        assertSameScore(info, Testcases.randomSolution(info, random, false), testcase.toString());
+        assertSameScore(info, Testcases.randomSolution(info, random, true), testcase.toString());
+    }
+
+    private static void assertSameScore(Info info, SolutionObject sol, String filename) {
+        HashMap<Integer, Integer> expected = Simulator.run(info.graph, info.clients, sol);
+        CompactSolution compact = CompactSolution.from(info.clients, sol);
+        int[] delays = Simulator.run(info.graph, compact);
+        assertArrayEquals(CompactSolution.delaysBySlot(info.clients, expected), delays, filename);
+
+        for (int flags = 0; flags < 8; ++flags) {
+            boolean pen1 = (flags & 1) != 0, pen2 = (flags & 2) != 0, updated = (flags & 4) != 0;
+            float map = Revenue.revenue(info, sol, expected, pen1, pen2, updated);
+            float slots = Revenue.revenue(info, compact, delays, pen1, pen2, updated);
+            assertEquals(Float.floatToIntBits(map), Float.floatToIntBits(slots), filename + " flags " + flags);
+        }
+    }
+}
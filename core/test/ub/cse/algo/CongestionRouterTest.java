@@ -0,0 +1,72 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The delays CongestionRouter predicts against simulating the paths it returns
+ */
+class CongestionRouterTest {
+    private static final int ROUNDS = 3;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void delaysMatchSimulation(Testcases.Testcase testcase) {
+        Random random = new Random(17);
+        Info info = testcase.parse();
+        for (int round = 0; round < ROUNDS; ++round) {
+            String message = testcase + " round " + round;
+            HashMap<Integer, Integer> priorities = new HashMap<>();
+            for (Client client : info.clients) {
+                // Some clients without a priority, which counts as 0
+                if (random.nextInt(8) > 0) {
+                    priorities.put(client.id, random.nextInt(4));
+                }
+            }
+            ArrayList<Integer> bandwidths = randomBandwidths(info, random, round);
+
+            CongestionRouter router = new CongestionRouter(info, bandwidths);
+            HashMap<Integer, ArrayList<Integer>> paths = router.route(priorities);
+            assertEquals(info.clients.size(), paths.size(), message);
+
+            SolutionObject sol = new SolutionObject(paths, priorities, bandwidths);
+            assertEquals(EventSimulator.run(info.graph, info.clients, sol), router.delays(), message);
+        }
+    }
+
+    /**
+     * The input's bandwidths, then ones with routers that forward every
+     * client at once and routers without bandwidth that cut clients off
+     */
+    private static ArrayList<Integer> randomBandwidths(Info info, Random random, int round) {
+        ArrayList<Integer> bandwidths = new ArrayList<>(info.bandwidths);
+        if (round == 0) {
+            return bandwidths;
+        }
+        List<Client> clients = info.clients;
+        for (int node = 0; node < bandwidths.size(); ++node) {
+            switch (random.nextInt(round == 1 ? 20 : 50)) {
+                case 0:
+                    bandwidths.set(node, clients.size());
+                    break;
+                case 1:
+                    bandwidths.set(node, 0);
+                    break;
+                case 2:
+                case 3:
+                    bandwidths.set(node, 1);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return bandwidths;
+    }
+}
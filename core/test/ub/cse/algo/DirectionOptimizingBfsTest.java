@@ -0,0 +1,144 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DirectionOptimizingBfs, sequential and parallel, against the plain
+ * top-down BFS of Traversals
+ */
+class DirectionOptimizingBfsTest {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameAsTopDown(Testcases.Testcase testcase) {
+        Adjacency graph = testcase.parse().graph.adjacency;
+        assertSameAsTopDown(graph, graph, testcase.toString());
+    }
+
+    @Test
+    void largeNetworks() throws IOException {
+        // Big enough for the parallel steps to split the frontier and the bitsets into tasks
+        for (TopologyGenerator.Topology topology : TopologyGenerator.Topology.values()) {
+            String filename = Testcases.generate(this.dir, topology, 300_000, 1, "uniform:1-3", 5);
+            MPUtility mpu = new MPUtility(1);
+            Adjacency graph = mpu.readFile(filename).adjacency;
+            assertSameAsTopDown(graph, graph, filename);
+        }
+    }
+
+    @Test
+    void unreachableNodes() {
+        Random random = new Random(5);
+        // Half of the nodes are in components the content provider can not reach
+        Adjacency graph = randomGraph(200_000, 8, 2, random, false);
+        assertSameAsTopDown(graph, graph, "undirected");
+        int unreachable = 0;
+        for (int distance : Traversals.distances(graph)) {
+            unreachable += distance == -1 ? 1 : 0;
+        }
+        assertTrue(unreachable >= 100_000, unreachable + " unreachable nodes");
+
+        // A lone content provider, and one without links
+        Adjacency single = randomGraph(1, 0, 1, random, false);
+        assertSameAsTopDown(single, single, "single node");
+        Adjacency isolated = randomGraph(1000, 0, 1, random, false);
+        assertSameAsTopDown(isolated, isolated, "no links");
+    }
+
+    @Test
+    void directedNetworks() {
+        Random random = new Random(5);
+        for (int nodes : new int[]{1000, 200_000}) {
+            HashMap<Integer, ArrayList<Integer>> links = randomLinks(nodes, 6, 1, random, true);
+            HashMap<Integer, ArrayList<Integer>> reversed = new HashMap<>();
+            for (int node = 0; node < nodes; ++node) {
+                reversed.put(node, new ArrayList<>());
+            }
+            for (int node = 0; node < nodes; ++node) {
+                for (int neighbor : links.get(node)) {
+                    reversed.get(neighbor).add(node);
+                }
+            }
+            assertSameAsTopDown(CsrGraph.fromMap(0, links), CsrGraph.fromMap(0, reversed), "directed " + nodes);
+        }
+    }
+
+    /**
+     * Same distances as the top-down BFS, and priors that are a link from a
+     * node one level closer, in both the sequential and the parallel search
+     */
+    private static void assertSameAsTopDown(Adjacency graph, Adjacency reverse, String message) {
+        int[] expected = Traversals.distances(graph);
+        int provider = graph.contentProvider();
+        for (boolean parallel : new boolean[]{false, true}) {
+            String run = message + (parallel ? " parallel" : " sequential");
+            DirectionOptimizingBfs bfs = DirectionOptimizingBfs.run(graph, reverse, parallel);
+            assertArrayEquals(expected, bfs.distances, run);
+
+            assertEquals(-1, bfs.priors[provider], run);
+            for (int node = 0; node < graph.size(); ++node) {
+                int prior = bfs.priors[node];
+                if (node == provider || expected[node] == -1) {
+                    assertEquals(-1, prior, run + " node " + node);
+                } else {
+                    assertEquals(expected[node] - 1, expected[prior], run + " node " + node);
+                    assertTrue(graph.hasEdge(prior, node), run + " node " + node);
+                }
+            }
+        }
+    }
+
+    private static Adjacency randomGraph(int nodes, int degree, int components, Random random, boolean directed) {
+        return CsrGraph.fromMap(0, randomLinks(nodes, degree, components, random, directed));
+    }
+
+    /**
+     * Random links that stay within one of the components, node n is in
+     * component n % components and the content provider 0 in the first
+     *
+     * @param nodes: number of nodes
+     * @param degree: links added per node
+     * @param components: number of components
+     * @param random: source of the links
+     * @param directed: only add the link from the node, not the one back
+     * @return the neighbors of every node
+     */
+    private static HashMap<Integer, ArrayList<Integer>> randomLinks(int nodes, int degree, int components,
+                                                                    Random random, boolean directed) {
+        HashMap<Integer, ArrayList<Integer>> links = new HashMap<>();
+        for (int node = 0; node < nodes; ++node) {
+            links.put(node, new ArrayList<>());
+        }
+        int perComponent = nodes / components;
+        for (int node = 0; node < nodes; ++node) {
+            int component = node % components;
+            for (int link = 0; link < degree && perComponent > 1; ++link) {
+                int neighbor = random.nextInt(perComponent) * components + component;
+                if (neighbor >= nodes || neighbor == node) {
+                    continue;
+                }
+                links.get(node).add(neighbor);
+                if (!directed) {
+                    links.get(neighbor).add(node);
+                }
+            }
+        }
+        return links;
+    }
+}
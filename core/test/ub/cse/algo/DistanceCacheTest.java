@@ -0,0 +1,108 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * What DistanceCache hands out, keeps, takes from seed and drops on invalidate
+ */
+class DistanceCacheTest {
+
+    @AfterEach
+    void resetMetrics() {
+        Metrics.reset();
+    }
+
+    @Test
+    void copiesCannotChangeTheSharedDistances() {
+        Adjacency graph = Testcases.parse(Testcases.problem(0), Testcases.BUNDLED[0]).graph.adjacency;
+        int[] expected = Traversals.distances(graph);
+        int[] shared = DistanceCache.shared(graph);
+        assertArrayEquals(expected, shared);
+        assertSame(shared, DistanceCache.shared(graph));
+
+        int[] copy = DistanceCache.distances(graph);
+        assertNotSame(shared, copy);
+        Arrays.fill(copy, 0);
+        assertArrayEquals(expected, DistanceCache.shared(graph));
+        assertArrayEquals(expected, DistanceCache.distances(graph));
+    }
+
+    @Test
+    void keyedByIdentity() {
+        Adjacency graph = Testcases.parse(Testcases.problem(0), Testcases.BUNDLED[0]).graph.adjacency;
+        Adjacency same = Testcases.parse(Testcases.problem(0), Testcases.BUNDLED[0]).graph.adjacency;
+        assertNotSame(DistanceCache.shared(graph), DistanceCache.shared(same));
+    }
+
+    @Test
+    void seedSkipsTheBfs() {
+        Adjacency graph = line(5);
+        int[] seeded = {0, 1, 2, 3, 4};
+        Metrics.enable();
+        Metrics.reset();
+        DistanceCache.seed(graph, seeded);
+        assertSame(seeded, DistanceCache.shared(graph));
+        assertFalse(metrics().contains("distances.cache.misses"), metrics());
+
+        // An entry already there is kept
+        DistanceCache.seed(graph, new int[]{0, 0, 0, 0, 0});
+        assertSame(seeded, DistanceCache.shared(graph));
+
+        assertThrows(IllegalArgumentException.class, () -> DistanceCache.seed(line(3), new int[4]));
+    }
+
+    @Test
+    void invalidateRunsTheBfsAgain() {
+        Adjacency graph = line(5);
+        // Wrong distances stay until the entry is dropped
+        int[] wrong = {0, 0, 0, 0, 0};
+        DistanceCache.seed(graph, wrong);
+        assertSame(wrong, DistanceCache.shared(graph));
+
+        DistanceCache.invalidate(graph);
+        int[] found = DistanceCache.shared(graph);
+        assertNotSame(wrong, found);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, found);
+
+        // Dropping a network that was never cached is fine
+        DistanceCache.invalidate(line(2));
+    }
+
+    /**
+     * @return nodes 0 to nodes - 1 linked in a line, the content provider at 0
+     */
+    private static Adjacency line(int nodes) {
+        int[] offsets = new int[nodes + 1];
+        int[] targets = new int[2 * (nodes - 1)];
+        int edges = 0;
+        for (int node = 0; node < nodes; ++node) {
+            if (node > 0) {
+                targets[edges++] = node - 1;
+            }
+            if (node + 1 < nodes) {
+                targets[edges++] = node + 1;
+            }
+            offsets[node + 1] = edges;
+        }
+        return new CsrGraph(0, offsets, targets);
+    }
+
+    private static String metrics() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Metrics.printJson(new PrintStream(out, true));
+        return out.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Candidates scored in parallel against scoring them one at a time and
+ * against the revenue runHelper prints
+ */
+class EvaluatorTest {
+    private static final int CANDIDATES = 40;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameAsSequentialAndRunHelper(Testcases.Testcase testcase) {
+        Random random = new Random(16);
+        Info info = testcase.parse();
+        List<SolutionObject> candidates = new ArrayList<>();
+        List<ArrayList<Integer>> bandwidths = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES; ++i) {
+            SolutionObject sol = Testcases.randomSolution(info, random, random.nextBoolean());
+            switch (random.nextInt(4)) {
+                case 0:
+                    // No bandwidths, the input's are scored instead
+                    sol.bandwidths = random.nextBoolean() ? null : new ArrayList<>();
+                    break;
+                case 1:
+                    for (Client client : info.clients) {
+                        if (random.nextInt(10) == 0) {
+                            sol.paths.remove(client.id);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            candidates.add(sol);
+            bandwidths.add(sol.bandwidths);
+        }
+
+        for (int threads : new int[]{1, 2, 4}) {
+            String message = testcase + " threads " + threads;
+            try (Evaluator evaluator = new Evaluator(info, threads)) {
+                Evaluator.Score[] scores = evaluator.evaluateAll(candidates);
+                assertEquals(candidates.size(), scores.length, message);
+                for (int i = 0; i < scores.length; ++i) {
+                    SolutionObject sol = candidates.get(i);
+                    // Scoring leaves the candidate alone, including missing bandwidths
+                    assertSame(bandwidths.get(i), sol.bandwidths, message + " candidate " + i);
+                    Evaluator.Score expected = evaluator.evaluate(sol);
+                    assertArrayEquals(expected.delays, scores[i].delays, message + " candidate " + i);
+                    assertBitsEqual(expected.revenue, scores[i].revenue, message + " candidate " + i);
+                    assertEquals(expected.complaints, scores[i].complaints, message + " candidate " + i);
+                    assertEquals(expected.fccComplaints, scores[i].fccComplaints, message + " candidate " + i);
+                    assertSameAsRunHelper(info, sol, scores[i], message + " candidate " + i);
+                }
+            }
+        }
+    }
+
+    private static void assertSameAsRunHelper(Info info, SolutionObject sol, Evaluator.Score score, String message) {
+        // Driver gives a candidate without bandwidths the input's before calling runHelper
+        SolutionObject graded = new SolutionObject(sol.paths, sol.priorities, sol.bandwidths);
+        if (graded.bandwidths == null || graded.bandwidths.isEmpty()) {
+            graded.bandwidths = info.bandwidths;
+        }
+        assertArrayEquals(CompactSolution.delaysBySlot(info.clients, EventSimulator.run(info.graph, info.clients, graded)),
+                score.delays, message);
+
+        // Problem 2 prints its complaints
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        float revenue;
+        try {
+            revenue = Driver.runHelper(info, graded);
+        } finally {
+            System.setOut(out);
+        }
+        assertBitsEqual(revenue, score.revenue, message);
+
+        BatchRunner.Evaluation evaluation = new BatchRunner.Evaluation();
+        Driver.runHelper(info, graded, evaluation);
+        assertEquals(evaluation.complaints, score.complaints, message);
+        assertEquals(evaluation.fccComplaints, score.fccComplaints, message);
+    }
+
+    private static void assertBitsEqual(float expected, float actual, String message) {
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(actual), message);
+    }
+}
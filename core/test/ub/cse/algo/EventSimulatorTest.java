@@ -0,0 +1,67 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * EventSimulator against the tick-by-tick Simulator it replaces
+ */
+class EventSimulatorTest {
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameDelays(Testcases.Testcase testcase) {
+        Random random = new Random(6);
+        Info info = testcase.parse();
+        for (int round = 0; round < 3; ++round) {
+            assertSameDelays(info, Testcases.randomSolution(info, random, round > 0), testcase.toString());
+        }
+    }
+
+    @Test
+    void invalidPaths() {
+        Random random = new Random(6);
+        Info info = Testcases.parse(Testcases.problem(0), Testcases.BUNDLED[0]);
+        for (int round = 0; round < 3; ++round) {
+            SolutionObject sol = Testcases.randomSolution(info, random, true);
+            for (Client client : info.clients) {
+                ArrayList<Integer> path = sol.paths.get(client.id);
+                switch (random.nextInt(8)) {
+                    case 0:
+                        // Detour through a neighbor and back
+                        int neighbor = info.graph.adjacency.target(info.graph.adjacency.edgeStart(client.id));
+                        path.add(neighbor);
+                        path.add(client.id);
+                        break;
+                    case 1:
+                        // Skip a router
+                        if (path.size() > 2) {
+                            path.remove(1);
+                        }
+                        break;
+                    case 2:
+                        sol.paths.remove(client.id);
+                        break;
+                    case 3:
+                        // Start somewhere other than the content provider
+                        path.remove(0);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            assertSameDelays(info, sol, Testcases.BUNDLED[0]);
+        }
+    }
+
+    private static void assertSameDelays(Info info, SolutionObject sol, String filename) {
+        assertEquals(Simulator.run(info.graph, info.clients, sol), EventSimulator.run(info.graph, info.clients, sol),
+                filename);
+    }
+}
@@ -0,0 +1,87 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Random local changes applied to an IncrementalSimulator against simulating
+ * and scoring the changed solution from scratch
+ */
+class IncrementalSimulatorTest {
+    private static final int CHANGES = 150;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameAsFullSimulation(Testcases.Testcase testcase) {
+        Random random = new Random(15);
+        Info info = testcase.parse();
+        String name = testcase.toString();
+        SolutionObject sol = Testcases.randomSolution(info, random, true);
+        IncrementalSimulator incremental = new IncrementalSimulator(info, sol);
+        assertSameAsFullSimulation(info, incremental, name + " before any change");
+
+        for (int change = 0; change < CHANGES; ++change) {
+            Client client = info.clients.get(random.nextInt(info.clients.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    incremental.setPath(client.id, randomPath(info, sol, client, random));
+                    break;
+                case 1:
+                    incremental.setPriority(client.id, random.nextInt(4));
+                    break;
+                default:
+                    // A router on the client's path, so the change holds up other packets
+                    ArrayList<Integer> path = sol.paths.get(client.id);
+                    int router = path.get(random.nextInt(path.size()));
+                    incremental.setBandwidth(router, Math.max(info.bandwidths.get(router) + random.nextInt(3) - 1, 0));
+                    break;
+            }
+            assertSameAsFullSimulation(info, incremental, name + " change " + change);
+        }
+    }
+
+    private static void assertSameAsFullSimulation(Info info, IncrementalSimulator incremental, String message) {
+        CompactSolution compact = CompactSolution.from(info.clients, incremental.toSolutionObject());
+        int[] delays = EventSimulator.run(info.graph.adjacency, compact);
+        assertArrayEquals(delays, incremental.delays(), message);
+
+        boolean penalties = info.problem == 3 || info.problem == 4;
+        float revenue = Revenue.revenue(info, compact, delays, penalties, penalties,
+                compact.bandwidthsChanged(info.bandwidths));
+        assertEquals(Float.floatToIntBits(revenue), Float.floatToIntBits(incremental.revenue()), message);
+    }
+
+    /**
+     * The client's original path, a detour through one of its neighbors, a
+     * path cut short at either end or another client's path
+     */
+    private static ArrayList<Integer> randomPath(Info info, SolutionObject sol, Client client, Random random) {
+        ArrayList<Integer> path = new ArrayList<>(sol.paths.get(client.id));
+        Adjacency graph = info.graph.adjacency;
+        switch (random.nextInt(5)) {
+            case 0:
+                break;
+            case 1:
+                long edge = graph.edgeStart(client.id) + random.nextInt(graph.degree(client.id));
+                path.add(graph.target(edge));
+                path.add(client.id);
+                break;
+            case 2:
+                path.remove(path.size() - 1);
+                break;
+            case 3:
+                path.remove(0);
+                break;
+            default:
+                path = new ArrayList<>(sol.paths.get(info.clients.get(random.nextInt(info.clients.size())).id));
+                break;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,38 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The memory-mapped parse against the text parse of the same files
+ */
+class MappedGraphTest {
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameParse(Testcases.Testcase testcase) {
+        int problem = testcase.problem;
+        String filename = testcase.filename;
+        MPUtility text = new MPUtility(problem);
+        Adjacency expected = text.readFile(filename).adjacency;
+        Info expectedInfo = text.readInfo(filename + "-info");
+        MPUtility mapped = new MPUtility(problem);
+        Adjacency actual = mapped.mapFile(filename).adjacency;
+        Info actualInfo = mapped.readInfo(filename + "-info");
+
+        assertEquals(expected.contentProvider(), actual.contentProvider(), filename);
+        assertEquals(expected.size(), actual.size(), filename);
+        assertEquals(expected.edgeCount(), actual.edgeCount(), filename);
+        for (int node = 0; node < expected.size(); ++node) {
+            assertEquals(expected.degree(node), actual.degree(node), filename + " node " + node);
+            long e = expected.edgeStart(node), a = actual.edgeStart(node);
+            for (; e < expected.edgeEnd(node); ++e, ++a) {
+                assertEquals(expected.target(e), actual.target(a), filename + " node " + node);
+            }
+        }
+        assertEquals(expectedInfo.shortestDelays, actualInfo.shortestDelays, filename);
+        assertEquals(expectedInfo.bandwidths, actualInfo.bandwidths, filename);
+    }
+}
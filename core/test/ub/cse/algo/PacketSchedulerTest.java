@@ -0,0 +1,326 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every policy of PacketScheduler against a simulation that keeps the
+ * packets waiting at a router in a plain list and looks through all of
+ * them for the next one
+ */
+class PacketSchedulerTest {
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameAsReference(Testcases.Testcase testcase) {
+        Random random = new Random(21);
+        Info info = testcase.parse();
+        for (int round = 0; round < ROUNDS; ++round) {
+            CompactSolution sol = CompactSolution.from(info.clients, congestedSolution(info, random));
+            for (PacketScheduler.Policy policy : PacketScheduler.Policy.values()) {
+                assertArrayEquals(reference(info, sol, policy), EventSimulator.run(info, sol, policy),
+                        testcase + " round " + round + " " + policy);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void fairShareKeepsToBandwidth(Testcases.Testcase testcase) throws IOException {
+        Random random = new Random(21);
+        Info info = testcase.parse();
+        Adjacency graph = info.graph.adjacency;
+        CompactSolution sol = CompactSolution.from(info.clients, congestedSolution(info, random));
+        Path file = this.dir.resolve("trace.bin");
+        try (TraceRecorder recorder = new TraceRecorder(file)) {
+            EventSimulator.run(graph, sol, DistanceCache.shared(graph),
+                    new EventSimulator.Scratch(graph, PacketScheduler.Policy.WEIGHTED_FAIR_SHARE, info.clientIndex()),
+                    recorder);
+        }
+
+        // Packets that left a router on a tick, forwarded or dropped on a missing link
+        HashMap<Long, Integer> sent = new HashMap<>();
+        new TraceReader(file).replay((tick, router, slot, waited, kind) -> {
+            if (kind != TraceRecorder.STALLED) {
+                sent.merge(((long) tick << 32) | router, 1, Integer::sum);
+            }
+        });
+        assertFalse(sent.isEmpty(), testcase.toString());
+        for (HashMap.Entry<Long, Integer> entry : sent.entrySet()) {
+            int router = (int) (long) entry.getKey();
+            assertTrue(entry.getValue() <= sol.bandwidths[router],
+                    testcase + " router " + router + " tick " + (entry.getKey() >>> 32) + " sent " + entry.getValue());
+        }
+    }
+
+    /**
+     * A random solution with routers down to a bandwidth of 1, so queues
+     * build up and groups come and go, some routers without bandwidth and
+     * some paths through a link that does not exist
+     */
+    private static SolutionObject congestedSolution(Info info, Random random) {
+        SolutionObject sol = Testcases.randomSolution(info, random, true);
+        for (int node = 0; node < sol.bandwidths.size(); ++node) {
+            int roll = random.nextInt(40);
+            if (roll == 0) {
+                sol.bandwidths.set(node, 0);
+            } else if (roll < 20) {
+                sol.bandwidths.set(node, 1);
+            }
+        }
+        for (ArrayList<Integer> path : sol.paths.values()) {
+            if (path.size() > 2 && random.nextInt(30) == 0) {
+                path.set(1 + random.nextInt(path.size() - 2), random.nextInt(info.graph.adjacency.size()));
+            }
+        }
+        return sol;
+    }
+
+    /**
+     * Simulates a solution with every router's queue a list of slots in the
+     * order they arrived. Packets forwarded on a tick arrive in the order
+     * they were sent, routers take turns in the order they got busy, like in
+     * EventSimulator, since the order groups join a ring depends on it
+     *
+     * @return the packet delays indexed by client slot
+     */
+    private static int[] reference(Info info, CompactSolution sol, PacketScheduler.Policy policy) {
+        Adjacency graph = info.graph.adjacency;
+        int[] shortest = Traversals.distances(graph);
+        Reference scheduler = new Reference(info, sol, shortest, policy);
+        int[] delays = new int[sol.slots()];
+        int[] hops = new int[sol.slots()];
+        List<Integer> active = new ArrayList<>();
+
+        for (int slot = 0; slot < sol.slots(); ++slot) {
+            if (sol.pathLength(slot) == 0 || hop(sol, slot, 0) != graph.contentProvider()) {
+                delays[slot] = Integer.MAX_VALUE;
+            } else if (sol.pathLength(slot) == 1) {
+                delays[slot] = arrive(sol, slot, 0, shortest);
+            } else {
+                scheduler.add(active, hop(sol, slot, 0), slot);
+            }
+        }
+
+        for (int tick = 1; !active.isEmpty(); ++tick) {
+            List<Integer> moved = new ArrayList<>();
+            List<Integer> stillActive = new ArrayList<>();
+            for (int router : active) {
+                List<Integer> queue = scheduler.queues.get(router);
+                int bandwidth = sol.bandwidths[router];
+                for (int sent = 0; !queue.isEmpty() && (bandwidth <= 0 || sent < bandwidth); ++sent) {
+                    int slot = scheduler.poll(router);
+                    if (bandwidth <= 0) {
+                        delays[slot] = Integer.MAX_VALUE;
+                        continue;
+                    }
+                    int next = hop(sol, slot, ++hops[slot]);
+                    if (!graph.hasEdge(next, router)) {
+                        delays[slot] = Integer.MAX_VALUE;
+                    } else if (hops[slot] == sol.pathLength(slot) - 1) {
+                        delays[slot] = arrive(sol, slot, tick, shortest);
+                    } else {
+                        moved.add(slot);
+                    }
+                }
+                if (!queue.isEmpty()) {
+                    stillActive.add(router);
+                }
+            }
+            active = stillActive;
+            for (int slot : moved) {
+                scheduler.add(active, hop(sol, slot, hops[slot]), slot);
+            }
+        }
+        return delays;
+    }
+
+    private static int hop(CompactSolution sol, int slot, int hop) {
+        return sol.pathPool[sol.pathOffsets[slot] + hop];
+    }
+
+    private static int arrive(CompactSolution sol, int slot, int tick, int[] shortest) {
+        int client = sol.clientIds[slot];
+        int hops = sol.pathLength(slot) - 1;
+        return hop(sol, slot, hops) == client && hops >= shortest[client] ? tick : Integer.MAX_VALUE;
+    }
+
+    /**
+     * The policies as the doc comments of PacketScheduler.Policy describe them
+     */
+    private static final class Reference {
+        private final PacketScheduler.Policy policy;
+        private final int[] priorities;
+        // Strict priority: highest priority first, ties by slot
+        private final int[] rank;
+        private final long[] deadlines;
+        // Priority to its level, 1 for the lowest
+        private final HashMap<Integer, Integer> levels = new HashMap<>();
+
+        private final HashMap<Integer, List<Integer>> queues = new HashMap<>();
+        // Weighted fair share: every router's ring of priorities with packets
+        // waiting, in turn order, the index of the one whose turn it is and
+        // the unused turn of every priority at it
+        private final HashMap<Integer, List<Integer>> rings = new HashMap<>();
+        private final HashMap<Integer, Integer> turn = new HashMap<>();
+        private final HashMap<Long, Integer> deficits = new HashMap<>();
+
+        private Reference(Info info, CompactSolution sol, int[] shortest, PacketScheduler.Policy policy) {
+            this.policy = policy;
+            this.priorities = sol.priorities;
+            int slots = sol.slots();
+            Integer[] order = new Integer[slots];
+            for (int slot = 0; slot < slots; ++slot) {
+                order[slot] = slot;
+            }
+            Arrays.sort(order, (a, b) -> this.priorities[a] != this.priorities[b]
+                    ? Integer.compare(this.priorities[b], this.priorities[a]) : Integer.compare(a, b));
+            this.rank = new int[slots];
+            for (int r = 0; r < slots; ++r) {
+                this.rank[order[r]] = r;
+            }
+
+            HashMap<Integer, Float> alphas = new HashMap<>();
+            for (Client client : info.clients) {
+                alphas.put(client.id, client.alpha);
+            }
+            this.deadlines = new long[slots];
+            for (int slot = 0; slot < slots; ++slot) {
+                int id = sol.clientIds[slot];
+                int optimal = shortest[id];
+                int deadline = optimal < 0 ? Integer.MAX_VALUE : (int) (alphas.get(id) * optimal);
+                // Ties by strict priority
+                this.deadlines[slot] = ((long) deadline << 32) | this.rank[slot];
+            }
+
+            TreeSet<Integer> distinct = new TreeSet<>();
+            for (int priority : this.priorities) {
+                distinct.add(priority);
+            }
+            for (int priority : distinct) {
+                this.levels.put(priority, this.levels.size() + 1);
+            }
+        }
+
+        /**
+         * Queues a packet at a router, marking the router active if it was idle
+         */
+        private void add(List<Integer> active, int router, int slot) {
+            List<Integer> queue = this.queues.computeIfAbsent(router, r -> new ArrayList<>());
+            if (queue.isEmpty()) {
+                active.add(router);
+            }
+            int priority = this.priorities[slot];
+            boolean joins = queue.stream().noneMatch(other -> this.priorities[other] == priority);
+            queue.add(slot);
+            if (this.policy == PacketScheduler.Policy.WEIGHTED_FAIR_SHARE && joins) {
+                join(router, priority);
+            }
+        }
+
+        private int poll(int router) {
+            List<Integer> queue = this.queues.get(router);
+            int best = -1;
+            if (this.policy == PacketScheduler.Policy.WEIGHTED_FAIR_SHARE) {
+                List<Integer> ring = this.rings.get(router);
+                int at = this.turn.get(router);
+                while (deficit(router, ring.get(at)) == 0) {
+                    at = (at + 1) % ring.size();
+                    addDeficit(router, ring.get(at), this.levels.get(ring.get(at)));
+                }
+                this.turn.put(router, at);
+                int priority = ring.get(at);
+                for (int slot : queue) {
+                    if (this.priorities[slot] == priority && (best < 0 || this.rank[slot] < this.rank[best])) {
+                        best = slot;
+                    }
+                }
+                addDeficit(router, priority, -1);
+                queue.remove(Integer.valueOf(best));
+                if (queue.stream().noneMatch(slot -> this.priorities[slot] == priority)) {
+                    leave(router, priority);
+                }
+                return best;
+            }
+            for (int slot : queue) {
+                if (best < 0 || key(slot) < key(best)) {
+                    best = slot;
+                }
+            }
+            queue.remove(Integer.valueOf(best));
+            return best;
+        }
+
+        private long key(int slot) {
+            return this.policy == PacketScheduler.Policy.EARLIEST_DEADLINE ? this.deadlines[slot] : this.rank[slot];
+        }
+
+        /**
+         * A priority alone takes its turn at once, otherwise it goes last in the ring
+         */
+        private void join(int router, int priority) {
+            List<Integer> ring = this.rings.computeIfAbsent(router, r -> new ArrayList<>());
+            this.deficits.put(deficitKey(router, priority), 0);
+            if (ring.isEmpty()) {
+                ring.add(priority);
+                this.turn.put(router, 0);
+                addDeficit(router, priority, this.levels.get(priority));
+                return;
+            }
+            // Right before the one whose turn it is
+            int at = this.turn.get(router);
+            ring.add(at, priority);
+            this.turn.put(router, at + 1);
+        }
+
+        /**
+         * A priority with nothing left waiting drops out, passing its turn to the next one
+         */
+        private void leave(int router, int priority) {
+            List<Integer> ring = this.rings.get(router);
+            this.deficits.put(deficitKey(router, priority), 0);
+            int index = ring.indexOf(priority);
+            int at = this.turn.get(router);
+            ring.remove(index);
+            if (ring.isEmpty()) {
+                this.turn.remove(router);
+            } else if (index < at) {
+                this.turn.put(router, at - 1);
+            } else if (index == at) {
+                at = index % ring.size();
+                this.turn.put(router, at);
+                addDeficit(router, ring.get(at), this.levels.get(ring.get(at)));
+            }
+        }
+
+        private int deficit(int router, int priority) {
+            return this.deficits.getOrDefault(deficitKey(router, priority), 0);
+        }
+
+        private void addDeficit(int router, int priority, int change) {
+            this.deficits.merge(deficitKey(router, priority), change, Integer::sum);
+        }
+
+        private static long deficitKey(int router, int priority) {
+            return ((long) router << 32) | (priority & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every Revenue overload against BaselineRevenue, bit for bit, on random
+ * delays, problem constants and bandwidth changes
+ */
+class RevenueTest {
+    private static final int ROUNDS = 150;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameRevenue(Testcases.Testcase testcase) {
+        Random random = new Random(23);
+        Info info = testcase.parse();
+        int[] shortest = DistanceCache.distances(info.graph.adjacency);
+        PrintStream out = System.out;
+        for (int round = 0; round < ROUNDS; ++round) {
+            // The problem and its constants only matter to the formula
+            info.problem = 1 + random.nextInt(5);
+            info.rho1 = random.nextFloat();
+            info.rho2 = random.nextFloat();
+            info.lawsuit = random.nextFloat() * 1e6f;
+            info.fccFine = random.nextFloat() * 1e6f;
+            info.costBandwidth = random.nextFloat() * 100;
+
+            int[] delays = randomDelays(info, shortest, random);
+            HashMap<Integer, Integer> delaysById = CompactSolution.delaysById(info.clients, delays);
+            SolutionObject sol = new SolutionObject();
+            sol.bandwidths = new ArrayList<>(info.bandwidths);
+            if (random.nextBoolean()) {
+                for (int change = 0; change < 20; ++change) {
+                    int node = random.nextInt(sol.bandwidths.size());
+                    sol.bandwidths.set(node, sol.bandwidths.get(node) + random.nextInt(5) - 1);
+                }
+            }
+            CompactSolution compact = CompactSolution.from(info.clients, sol);
+
+            for (int flags = 0; flags < 8; ++flags) {
+                boolean pen1 = (flags & 1) != 0, pen2 = (flags & 2) != 0, updated = (flags & 4) != 0;
+                String message = testcase + " round " + round + " problem " + info.problem + " flags " + flags;
+                ArrayList<Client> complaints = new ArrayList<>();
+                float expected = BaselineRevenue.revenue(info, sol, delaysById, pen1, pen2, updated, complaints);
+
+                // Problem 2 prints its complaints
+                System.setOut(new PrintStream(new ByteArrayOutputStream()));
+                float map;
+                try {
+                    map = Revenue.revenue(info, sol, delaysById, pen1, pen2, updated);
+                } finally {
+                    System.setOut(out);
+                }
+                assertBitsEqual(expected, map, message);
+
+                int[] counts = new int[2];
+                assertBitsEqual(expected, Revenue.revenue(info, compact, delays, pen1, pen2, updated, counts), message);
+                // One spare word that must be left alone
+                long[] complainers = new long[(delays.length + 63) / 64 + 1];
+                Arrays.fill(complainers, -1L);
+                assertBitsEqual(expected, Revenue.revenue(info, shortest, compact.bandwidths, delays, pen1, pen2,
+                        updated, null, complainers), message);
+                assertEquals(-1L, complainers[complainers.length - 1], message);
+
+                // Problem 5 stops at the first client who does not pay
+                if (info.problem != 5) {
+                    long[] expectedComplainers = new long[complainers.length];
+                    expectedComplainers[expectedComplainers.length - 1] = -1L;
+                    int fccComplaints = 0;
+                    for (Client client : complaints) {
+                        int slot = info.clientIndex().slot(client.id);
+                        expectedComplainers[slot >>> 6] |= 1L << slot;
+                        fccComplaints += client.isFcc ? 1 : 0;
+                    }
+                    assertArrayEquals(new int[]{complaints.size(), fccComplaints}, counts, message);
+                    assertArrayEquals(expectedComplainers, complainers, message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void reorderedClients() {
+        Random random = new Random(23);
+        Info info = Testcases.parse(Testcases.problem(2), Testcases.BUNDLED[2]);
+        SolutionObject sol = Testcases.randomSolution(info, random, true);
+        HashMap<Integer, Integer> delays = EventSimulator.run(info.graph, info.clients, sol);
+        // Build the index for the parsed order first
+        Revenue.revenue(info, sol, delays, true, true, true);
+
+        for (int round = 0; round < 3; ++round) {
+            if (round == 0) {
+                Collections.reverse(info.clients);
+            } else {
+                Collections.shuffle(info.clients, random);
+            }
+            String message = "round " + round;
+            float expected = BaselineRevenue.revenue(info, sol, delays, true, true, true, new ArrayList<>());
+            assertBitsEqual(expected, Revenue.revenue(info, sol, delays, true, true, true), message);
+            CompactSolution compact = CompactSolution.from(info.clients, sol);
+            assertBitsEqual(expected, Revenue.revenue(info, compact,
+                    CompactSolution.delaysBySlot(info.clients, delays), true, true, true), message);
+        }
+    }
+
+    /**
+     * Delays at, near or far past the shortest ones, some of them for packets that never arrived
+     */
+    private static int[] randomDelays(Info info, int[] shortest, Random random) {
+        int mode = random.nextInt(4);
+        int[] delays = new int[info.clients.size()];
+        for (int slot = 0; slot < delays.length; ++slot) {
+            int optimal = shortest[info.clients.get(slot).id];
+            switch (mode) {
+                case 0:
+                    delays[slot] = optimal;
+                    break;
+                case 1:
+                    delays[slot] = optimal + random.nextInt(Math.max(1, optimal * 2));
+                    break;
+                default:
+                    delays[slot] = random.nextInt(20) == 0 ? Integer.MAX_VALUE : optimal + random.nextInt(3);
+                    break;
+            }
+        }
+        return delays;
+    }
+
+    private static void assertBitsEqual(float expected, float actual, String message) {
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(actual), message);
+    }
+}
@@ -0,0 +1,124 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sensitivity against scoring the changed delays with the Revenue kernel
+ */
+class SensitivityTest {
+    private static final int ROUNDS = 100;
+    private static final int MOVES = 100;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void matchesRevenue(Testcases.Testcase testcase) {
+        Random random = new Random(24);
+        Info info = testcase.parse();
+        int[] shortest = DistanceCache.distances(info.graph.adjacency);
+        int[] bandwidths = new int[info.bandwidths.size()];
+        for (int node = 0; node < bandwidths.length; ++node) {
+            bandwidths[node] = info.bandwidths.get(node);
+        }
+        ClientIndex clients = info.clientIndex();
+
+        for (int round = 0; round < ROUNDS; ++round) {
+            // Low thresholds so the lawsuit and the fine are often close
+            info.problem = 1 + random.nextInt(5);
+            info.rho1 = random.nextFloat() * 0.3f;
+            info.rho2 = random.nextFloat() * 0.3f;
+            info.lawsuit = random.nextFloat() * 1e5f;
+            info.fccFine = random.nextFloat() * 1e5f;
+            info.costBandwidth = random.nextFloat() * 100;
+            boolean penalties = random.nextBoolean(), updated = random.nextBoolean();
+            String message = testcase + " round " + round + " problem " + info.problem;
+
+            int[] delays = new int[info.clients.size()];
+            int mode = random.nextInt(3);
+            for (int slot = 0; slot < delays.length; ++slot) {
+                int optimal = shortest[clients.ids[slot]];
+                delays[slot] = mode == 0 ? optimal : optimal + random.nextInt(Math.max(1, optimal));
+                if (random.nextInt(100) == 0) {
+                    delays[slot] = Integer.MAX_VALUE;
+                }
+            }
+            Sensitivity sensitivity = new Sensitivity(info, shortest, bandwidths, delays, penalties, penalties, updated);
+            float revenue = Revenue.revenue(info, shortest, bandwidths, delays, penalties, penalties, updated, null);
+            assertEquals(Float.floatToIntBits(revenue), Float.floatToIntBits(sensitivity.revenue()), message);
+            if (penalties) {
+                assertEquals((int) (info.rho1 * info.clients.size()) - sensitivity.complaints(),
+                        sensitivity.complaintsBeforeLawsuit(), message);
+            }
+
+            for (int move = 0; move < MOVES; ++move) {
+                int slot = random.nextInt(delays.length);
+                int optimal = shortest[clients.ids[slot]];
+                int alphaLimit = sensitivity.alphaLimit(slot), betaLimit = sensitivity.betaLimit(slot);
+                assertExactLimit(alphaLimit, clients.alphas[slot], optimal);
+                assertExactLimit(betaLimit, clients.betas[slot], optimal);
+                assertTrue(sensitivity.stake(slot) >= 0, message);
+                assertEquals(delays[slot] <= alphaLimit, sensitivity.alphaHeadroom(slot) >= 0, message);
+
+                // Right at a limit, or somewhere around the current delay
+                int delay;
+                switch (random.nextInt(4)) {
+                    case 0:
+                        delay = Math.max(0, alphaLimit + random.nextInt(3) - 1);
+                        break;
+                    case 1:
+                        delay = Math.max(0, betaLimit + random.nextInt(3) - 1);
+                        break;
+                    default:
+                        delay = Math.max(0, delays[slot] + random.nextInt(2 * optimal + 3) - optimal - 1);
+                        break;
+                }
+                int current = delays[slot];
+                delays[slot] = delay;
+                float after = Revenue.revenue(info, shortest, bandwidths, delays, penalties, penalties, updated, null);
+                delays[slot] = current;
+
+                float change = sensitivity.revenueChange(slot, delay);
+                if (!sensitivity.changesState(slot, delay)) {
+                    assertEquals(Float.floatToIntBits(revenue), Float.floatToIntBits(after), message);
+                    assertEquals(0f, change, message);
+                }
+                // The change sums fewer terms than a full run, so it may differ in the last bits
+                double tolerance = Math.max(1, Math.abs(revenue)) * 1e-6;
+                assertEquals((double) after - revenue, change, tolerance, message + " slot " + slot + " delay " + delay);
+            }
+        }
+    }
+
+    @Test
+    void limitsFollowFloatComparison() {
+        Random random = new Random(24);
+        for (int i = 0; i < 100_000; ++i) {
+            float factor = random.nextInt(4) == 0 ? random.nextFloat() * 1e6f : 1 + random.nextFloat() * 3;
+            int optimal = random.nextInt(4) == 0 ? random.nextInt() >>> 1 : random.nextInt(50);
+            assertExactLimit(Sensitivity.lastDelayWithin(factor, optimal), factor, optimal);
+        }
+        assertEquals(-1, Sensitivity.lastDelayWithin(Float.NaN, 3));
+        assertEquals(-1, Sensitivity.lastDelayWithin(-1f, 3));
+        assertEquals(Integer.MAX_VALUE, Sensitivity.lastDelayWithin(Float.POSITIVE_INFINITY, 3));
+    }
+
+    /**
+     * The limit is the last delay within factor * optimal, compared as floats like the Revenue kernel
+     */
+    private static void assertExactLimit(int limit, float factor, int optimal) {
+        float bound = factor * optimal;
+        if (limit < 0) {
+            assertFalse(0 <= bound, factor + " * " + optimal);
+        } else if (limit < Integer.MAX_VALUE) {
+            assertTrue(limit <= bound, factor + " * " + optimal);
+            assertTrue(limit + 1 > bound, factor + " * " + optimal);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ub.cse.algo;
+
+import ub.cse.algo.util.Metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Testcases reloaded from a snapshot against the text parse, and the
+ * distances a snapshot hands to DistanceCache
+ */
+class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void sameTestcase(Testcases.Testcase testcase) throws IOException {
+        // Copy so the snapshot is not written next to the shared files
+        Path source = Paths.get(testcase.filename);
+        Path copy = this.dir.resolve(source.getFileName());
+        Files.copy(source, copy);
+        Files.copy(Paths.get(source + "-info"), Paths.get(copy + "-info"));
+        assertSameTestcase(testcase.problem, copy.toString());
+    }
+
+    @Test
+    void loadSeedsDistanceCache() throws IOException {
+        String filename = Testcases.generate(this.dir, TopologyGenerator.Topology.POWER_LAW, 3000, 2, "uniform:1-4", 5);
+        new MPUtility(2).load(filename);
+
+        Metrics.enable();
+        Metrics.reset();
+        try {
+            Info info = new MPUtility(2).load(filename);
+            int[] distances = DistanceCache.distances(info.graph.adjacency);
+            assertArrayEquals(Traversals.distances(info.graph.adjacency, Traversals.Strategy.TOP_DOWN), distances);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Metrics.printJson(new PrintStream(out, true));
+            assertFalse(out.toString().contains("distances.cache.misses"), out.toString());
+        } finally {
+            Metrics.reset();
+        }
+    }
+
+    private static void assertSameTestcase(int problem, String filename) throws IOException {
+        // The first load writes the snapshot, the second one must come from it
+        new MPUtility(problem).load(filename);
+        assertNotNull(Snapshot.read(problem, filename), filename);
+        Info expected = Testcases.parse(problem, filename);
+        Info actual = new MPUtility(problem).load(filename);
+
+        Adjacency expectedGraph = expected.graph.adjacency, actualGraph = actual.graph.adjacency;
+        assertEquals(expectedGraph.contentProvider(), actualGraph.contentProvider(), filename);
+        assertEquals(expectedGraph.size(), actualGraph.size(), filename);
+        assertEquals(expectedGraph.edgeCount(), actualGraph.edgeCount(), filename);
+        for (int node = 0; node < expectedGraph.size(); ++node) {
+            assertEquals(expectedGraph.degree(node), actualGraph.degree(node), filename + " node " + node);
+            long e = expectedGraph.edgeStart(node), a = actualGraph.edgeStart(node);
+            for (; e < expectedGraph.edgeEnd(node); ++e, ++a) {
+                assertEquals(expectedGraph.target(e), actualGraph.target(a), filename + " node " + node);
+            }
+        }
+        assertArrayEquals(DistanceCache.distances(expectedGraph), DistanceCache.distances(actualGraph), filename);
+
+        assertEquals(expected.bandwidths, actual.bandwidths, filename);
+        assertEquals(expected.rho1, actual.rho1, filename);
+        assertEquals(expected.rho2, actual.rho2, filename);
+        assertEquals(expected.lawsuit, actual.lawsuit, filename);
+        assertEquals(expected.fccFine, actual.fccFine, filename);
+        assertEquals(expected.costBandwidth, actual.costBandwidth, filename);
+        assertEquals(expected.shortestDelays, actual.shortestDelays, filename);
+        assertEquals(expected.clients.size(), actual.clients.size(), filename);
+        for (int c = 0; c < expected.clients.size(); ++c) {
+            Client e = expected.clients.get(c), a = actual.clients.get(c);
+            assertEquals(e.id, a.id, filename);
+            assertEquals(e.alpha, a.alpha, filename);
+            assertEquals(e.beta, a.beta, filename);
+            assertEquals(e.payment, a.payment, filename);
+            assertEquals(e.isRural, a.isRural, filename);
+            assertEquals(e.isFcc, a.isFcc, filename);
+        }
+    }
+}
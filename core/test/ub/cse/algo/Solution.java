@@ -0,0 +1,28 @@
+package ub.cse.algo;
+
+/**
+ * The solution Driver.solve loads in the core tests: the shortest paths,
+ * like the template every MPJava module starts from
+ */
+public class Solution {
+
+    private final Info info;
+
+    /**
+     * @param info: data parsed from input file
+     */
+    public Solution(Info info) {
+        this.info = info;
+    }
+
+    /**
+     * @return the BFS paths with the original bandwidths
+     */
+    public SolutionObject outputPaths() {
+        SolutionObject sol = new SolutionObject();
+        sol.paths = Traversals.bfsPaths(this.info.graph, this.info.clients);
+        sol.priorities = Traversals.bfs(this.info.graph, this.info.clients);
+        sol.bandwidths = this.info.bandwidths;
+        return sol;
+    }
+}
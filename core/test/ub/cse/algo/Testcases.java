@@ -0,0 +1,172 @@
+package ub.cse.algo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Inputs shared by the tests: the testcase bundled with every MPJava
+ * module, and networks written by TopologyGenerator.
+ *
+ * The equivalence tests run over all() with
+ *     @ParameterizedTest
+ *     @MethodSource("ub.cse.algo.Testcases#all")
+ * and keep only their own assertions and edge cases
+ */
+final class Testcases {
+    // Bundled testcases, the one of MPJavaN is for problem N. Tests run from the core directory
+    static final String[] BUNDLED = {
+            "../MPJava1/testcases/input1.txt",
+            "../MPJava2/testcases/input1.txt",
+            "../MPJava3/testcases/input1.txt"
+    };
+    // Size and node bandwidths of the generated testcases, low enough for packets to queue
+    private static final int GENERATED_NODES = 2000;
+    private static final String GENERATED_BANDWIDTH = "uniform:1-3";
+
+    // The matrix, generated on first use and shared by every test class
+    private static List<Testcase> all;
+
+    private Testcases() {
+    }
+
+    /**
+     * A testcase of the matrix, named after its file and problem in the test report
+     */
+    static final class Testcase {
+        final String filename;
+        final int problem;
+
+        Testcase(String filename, int problem) {
+            this.filename = filename;
+            this.problem = problem;
+        }
+
+        /**
+         * @return the testcase parsed from its text files, a new Info every call
+         */
+        Info parse() {
+            return Testcases.parse(this.problem, this.filename);
+        }
+
+        @Override
+        public String toString() {
+            // Generated files are in a temporary directory, only their name tells them apart
+            String name = this.filename.startsWith("..") ? this.filename : new File(this.filename).getName();
+            return name + " as problem " + this.problem;
+        }
+    }
+
+    /**
+     * Every bundled testcase for its problem, MPJava3's also for problem 4
+     * which reads the same info format, and every topology written for every
+     * problem
+     *
+     * @return the testcases
+     */
+    static synchronized Stream<Testcase> all() {
+        if (all == null) {
+            List<Testcase> testcases = new ArrayList<>();
+            for (int i = 0; i < BUNDLED.length; ++i) {
+                testcases.add(new Testcase(BUNDLED[i], problem(i)));
+            }
+            testcases.add(new Testcase(BUNDLED[2], 4));
+            try {
+                Path dir = Files.createTempDirectory("testcases");
+                dir.toFile().deleteOnExit();
+                for (TopologyGenerator.Topology topology : TopologyGenerator.Topology.values()) {
+                    for (int problem = 1; problem <= 5; ++problem) {
+                        String filename = generate(dir, topology, GENERATED_NODES, problem, GENERATED_BANDWIDTH, 331);
+                        // Registered after the directory, so deleted before it
+                        new File(filename).deleteOnExit();
+                        new File(filename + "-info").deleteOnExit();
+                        testcases.add(new Testcase(filename, problem));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            all = testcases;
+        }
+        return all.stream();
+    }
+
+    /**
+     * @param index: index into BUNDLED
+     * @return the problem the bundled testcase is for
+     */
+    static int problem(int index) {
+        return index + 1;
+    }
+
+    /**
+     * Parses a testcase from its text files
+     *
+     * @param problem: problem whose info format the testcase has
+     * @param filename: the network file, the info file is filename + "-info"
+     * @return the parsed testcase
+     */
+    static Info parse(int problem, String filename) {
+        MPUtility mpu = new MPUtility(problem);
+        mpu.readFile(filename);
+        return mpu.readInfo(filename + "-info");
+    }
+
+    /**
+     * Writes a synthetic testcase
+     *
+     * @param dir: directory to write it to
+     * @param topology: shape of the network
+     * @param nodes: number of nodes
+     * @param problem: problem whose info format to write
+     * @param bandwidth: node bandwidths, in TopologyGenerator's format
+     * @param seed: seed of the generator
+     * @return the network file, the info file is next to it with "-info" appended
+     * @throws IOException if the files can not be written
+     */
+    static String generate(Path dir, TopologyGenerator.Topology topology, int nodes, int problem, String bandwidth,
+                           long seed) throws IOException {
+        TopologyGenerator generator = new TopologyGenerator();
+        generator.topology = topology;
+        generator.nodes = nodes;
+        generator.problem = problem;
+        generator.bandwidth = bandwidth;
+        generator.seed = seed;
+        String filename = dir.resolve(topology + "-" + nodes + "-" + problem + "-" + seed + ".txt").toString();
+        generator.write(filename);
+        return filename;
+    }
+
+    /**
+     * A solution on BFS shortest paths with random priorities and bandwidths.
+     * Every bandwidth is at least 1, the tick-by-tick Simulator never finishes
+     * with a packet stuck at a router without bandwidth
+     *
+     * @param info: the testcase
+     * @param random: source of the priorities and bandwidths
+     * @param changeBandwidths: change some bandwidths instead of keeping the original ones
+     * @return the solution
+     */
+    static SolutionObject randomSolution(Info info, Random random, boolean changeBandwidths) {
+        HashMap<Integer, ArrayList<Integer>> paths = Traversals.bfsPaths(info.graph, info.clients);
+        HashMap<Integer, Integer> priorities = new HashMap<>();
+        for (Client client : info.clients) {
+            priorities.put(client.id, random.nextInt(4));
+        }
+        ArrayList<Integer> bandwidths = new ArrayList<>(info.bandwidths.size());
+        for (int bandwidth : info.bandwidths) {
+            if (changeBandwidths && random.nextInt(4) == 0) {
+                bandwidth += random.nextInt(3) - 1;
+            }
+            bandwidths.add(Math.max(bandwidth, 1));
+        }
+        return new SolutionObject(paths, priorities, bandwidths);
+    }
+}
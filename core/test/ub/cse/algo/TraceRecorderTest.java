@@ -0,0 +1,148 @@
+package ub.cse.algo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs recorded with TraceRecorder and replayed with TraceReader
+ */
+class TraceRecorderTest {
+    // Size of the recorder's buffer, a bigger trace is drained into the file during the run
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @MethodSource("ub.cse.algo.Testcases#all")
+    void roundTrip(Testcases.Testcase testcase) throws IOException {
+        assertRoundTrip(testcase.parse(), testcase.toString());
+    }
+
+    @Test
+    void drainedDuringTheRun() throws IOException {
+        String filename = Testcases.generate(this.dir, TopologyGenerator.Topology.POWER_LAW, 50_000, 1, "uniform:1-3",
+                22);
+        Info info = Testcases.parse(1, filename);
+        long bytes = assertRoundTrip(info, filename);
+        assertTrue(bytes > TraceRecorder.HEADER_BYTES + BUFFER_SIZE, bytes + " bytes");
+    }
+
+    @Test
+    void unfinishedTraceDoesNotRead() throws IOException {
+        Path file = this.dir.resolve("unfinished.bin");
+        Files.write(file, new byte[TraceRecorder.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> new TraceReader(file));
+    }
+
+    /**
+     * Records a run of a random solution on BFS paths, where every packet
+     * arrives, and checks what the replay gives against the delays
+     *
+     * @return the size of the trace
+     */
+    private long assertRoundTrip(Info info, String message) throws IOException {
+        Adjacency graph = info.graph.adjacency;
+        CompactSolution sol = CompactSolution.from(info.clients, Testcases.randomSolution(info, new Random(22), true));
+        Path file = this.dir.resolve("trace.bin");
+        int[] delays;
+        TraceRecorder recorder = new TraceRecorder(file);
+        try (TraceRecorder trace = recorder) {
+            delays = EventSimulator.run(graph, sol, DistanceCache.shared(graph), new EventSimulator.Scratch(graph),
+                    trace);
+        }
+        assertArrayEquals(EventSimulator.run(graph, sol), delays, message);
+
+        // One event per router every delivered packet leaves
+        long expectedEvents = 0;
+        int lastTick = 0;
+        for (int slot = 0; slot < sol.slots(); ++slot) {
+            if (delays[slot] != Integer.MAX_VALUE) {
+                expectedEvents += Math.max(sol.pathLength(slot) - 1, 0);
+                lastTick = Math.max(lastTick, delays[slot]);
+            }
+        }
+
+        TraceReader reader = new TraceReader(file);
+        assertEquals(graph.size(), reader.nodes(), message);
+        assertEquals(sol.slots(), reader.packets(), message);
+        assertEquals(recorder.events(), reader.events(), message);
+        assertEquals(expectedEvents, reader.events(), message);
+        assertEquals(lastTick, reader.ticks(), message);
+        assertEquals(recorder.bytes(), Files.size(file), message);
+
+        int[] forwarded = new int[sol.slots()];
+        int[] lastForwarded = new int[sol.slots()];
+        int[] busiest = new int[graph.size()];
+        // Last tick every router forwarded on, and the ticks its packets spent in its queue
+        int[] lastSent = new int[graph.size()];
+        long[] queued = new long[graph.size()];
+        reader.replay((tick, router, slot, waited, kind) -> {
+            assertEquals(TraceRecorder.FORWARDED, kind, message + " slot " + slot);
+            assertEquals(sol.pathPool[sol.pathOffsets[slot] + forwarded[slot]], router, message + " slot " + slot);
+            assertTrue(tick - waited > lastForwarded[slot], message + " slot " + slot);
+            forwarded[slot]++;
+            lastForwarded[slot] = tick;
+            busiest[router]++;
+            lastSent[router] = tick;
+            queued[router] += waited + 1;
+        });
+        for (int slot = 0; slot < sol.slots(); ++slot) {
+            if (delays[slot] != Integer.MAX_VALUE && sol.pathLength(slot) > 1) {
+                assertEquals(sol.pathLength(slot) - 1, forwarded[slot], message + " slot " + slot);
+                assertEquals(delays[slot], lastForwarded[slot], message + " slot " + slot);
+            } else {
+                assertEquals(0, forwarded[slot], message + " slot " + slot);
+            }
+        }
+
+        // Every queue the packets went through is empty after the last packet left it
+        int provider = graph.contentProvider();
+        int leaving = 0;
+        for (int slot = 0; slot < sol.slots(); ++slot) {
+            leaving += forwarded[slot] > 0 ? 1 : 0;
+        }
+        int[] providerDepth = reader.queueDepth(provider);
+        assertEquals(leaving, lastTick > 0 ? providerDepth[1] : 0, message);
+        for (int router : busiestRouters(busiest, provider)) {
+            int[] depth = reader.queueDepth(router);
+            assertEquals(reader.ticks() + 1, depth.length, message + " router " + router);
+            assertTrue(Arrays.stream(depth).allMatch(d -> d >= 0), message + " router " + router);
+            assertEquals(queued[router], Arrays.stream(depth).asLongStream().sum(), message + " router " + router);
+            if (busiest[router] > 0) {
+                assertTrue(depth[lastSent[router]] > 0, message + " router " + router);
+            }
+            for (int tick = lastSent[router] + 1; tick < depth.length; ++tick) {
+                assertEquals(0, depth[tick], message + " router " + router + " tick " + tick);
+            }
+        }
+        return Files.size(file);
+    }
+
+    /**
+     * @return the content provider and the routers that forwarded the most packets after it
+     */
+    private static int[] busiestRouters(int[] forwarded, int provider) {
+        IntStream others = IntStream.range(0, forwarded.length)
+                .filter(router -> router != provider && forwarded[router] > 0)
+                .boxed()
+                .sorted((a, b) -> Integer.compare(forwarded[b], forwarded[a]))
+                .limit(8)
+                .mapToInt(Integer::intValue);
+        return IntStream.concat(IntStream.of(provider), others).toArray();
+    }
+}
@@ -0,0 +1,37 @@
+package ub.cse.algo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Table sizes of the open-addressing tables, in particular for key counts
+ * large enough to overflow an int product
+ */
+class HashCapacityTest {
+
+    @Test
+    void smallTables() {
+        assertEquals(8, HashCapacity.forExpected(0, 50));
+        assertEquals(8, HashCapacity.forExpected(4, 50));
+        assertEquals(16, HashCapacity.forExpected(5, 50));
+        assertEquals(16, HashCapacity.forExpected(8, 50));
+        assertEquals(32, HashCapacity.forExpected(9, 50));
+    }
+
+    @Test
+    void largeTables() {
+        assertEquals(1 << 26, HashCapacity.forExpected(25_000_000, 50));
+        assertEquals(1 << 26, HashCapacity.forExpected(30_000_000, 50));
+        assertEquals(1 << 27, HashCapacity.forExpected(40_000_000, 50));
+        assertEquals(1 << 27, HashCapacity.forExpected(50_000_000, 50));
+    }
+
+    @Test
+    void clampedToMaxCapacity() {
+        assertEquals(HashCapacity.MAX_CAPACITY, HashCapacity.forExpected(Integer.MAX_VALUE, 50));
+        assertEquals(HashCapacity.MAX_CAPACITY, HashCapacity.forExpected(Long.MAX_VALUE / 100, 50));
+        assertEquals(HashCapacity.MAX_CAPACITY, HashCapacity.forExpected(LongHashSet.MAX_EXPECTED, 50));
+        assertEquals(1 << 29, LongHashSet.MAX_EXPECTED);
+    }
+}
@@ -0,0 +1,53 @@
+package ub.cse.algo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ReservationTable against a HashMap of the same counts, through enough
+ * reservations and releases to grow and compact the table
+ */
+class ReservationTableTest {
+
+    @Test
+    void countsMatchHashMap() {
+        Random random = new Random(18);
+        for (int expected : new int[]{0, 100, 100_000}) {
+            ReservationTable table = new ReservationTable(expected);
+            HashMap<Long, Integer> counts = new HashMap<>();
+            ArrayList<long[]> reserved = new ArrayList<>();
+            for (int step = 0; step < 200_000; ++step) {
+                if (reserved.isEmpty() || random.nextInt(3) > 0) {
+                    int router = random.nextInt(5000), tick = random.nextInt(50);
+                    long key = ((long) router << 32) | tick;
+                    assertEquals((int) counts.merge(key, 1, Integer::sum), table.reserve(router, tick));
+                    reserved.add(new long[]{router, tick});
+                } else {
+                    long[] cell = reserved.remove(random.nextInt(reserved.size()));
+                    long key = (cell[0] << 32) | cell[1];
+                    assertEquals((int) counts.merge(key, -1, Integer::sum), table.release((int) cell[0], (int) cell[1]));
+                }
+            }
+            for (int router = 0; router < 5000; ++router) {
+                for (int tick = 0; tick < 50; ++tick) {
+                    assertEquals((int) counts.getOrDefault(((long) router << 32) | tick, 0), table.count(router, tick));
+                }
+            }
+        }
+    }
+
+    @Test
+    void releaseWithoutReservation() {
+        ReservationTable table = new ReservationTable();
+        table.reserve(3, 4);
+        table.release(3, 4);
+        assertThrows(IllegalStateException.class, () -> table.release(3, 4));
+        assertThrows(IllegalStateException.class, () -> table.release(4, 3));
+    }
+}
@@ -0,0 +1,101 @@
+package ub.cse.algo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tokenizer against Integer.parseInt and Float.parseFloat, which the
+ * split based parser it replaced used
+ */
+class TokenReaderTest {
+
+    private static TokenReader reader(String text) {
+        return new TokenReader(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @Test
+    void floatsMatchParseFloat() throws IOException {
+        Random random = new Random(331);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200000; ++i) {
+            // Mostly the fast path (up to 7 digits), some long ones for the slow path
+            int digits = 1 + random.nextInt(i % 10 == 0 ? 12 : 7);
+            StringBuilder token = new StringBuilder();
+            if (random.nextInt(8) == 0) {
+                token.append(random.nextBoolean() ? '-' : '+');
+            }
+            int point = random.nextInt(digits + 1);
+            for (int d = 0; d < digits; ++d) {
+                if (d == point && d > 0) {
+                    token.append('.');
+                }
+                token.append((char) ('0' + random.nextInt(10)));
+            }
+            tokens.add(token.toString());
+        }
+        tokens.add("1e5");
+        tokens.add("0.1");
+        tokens.add("3.4028235E38");
+        tokens.add("-0");
+
+        try (TokenReader reader = reader(String.join(" ", tokens) + "\n")) {
+            for (String token : tokens) {
+                float expected = Float.parseFloat(token);
+                assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(reader.nextFloat()), token);
+            }
+            assertTrue(reader.endOfLine());
+        }
+    }
+
+    @Test
+    void intsMatchParseInt() throws IOException {
+        Random random = new Random(332);
+        int[] values = new int[100000];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i < 2 ? (i == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE) : random.nextInt();
+            text.append(values[i]).append(i % 7 == 6 ? "\r\n" : "  ");
+        }
+        try (TokenReader reader = reader(text.toString())) {
+            int read = 0;
+            while (reader.hasNextLine()) {
+                while (!reader.endOfLine()) {
+                    assertEquals(values[read], reader.nextInt());
+                    read++;
+                }
+                reader.nextLine();
+            }
+            assertEquals(values.length, read);
+        }
+    }
+
+    @Test
+    void linesAndRejectedTokens() throws IOException {
+        try (TokenReader reader = reader("1 2\n\n3 x\n2147483648\n")) {
+            assertEquals(1, reader.nextInt());
+            reader.skipToken();
+            assertTrue(reader.endOfLine());
+            reader.nextLine();
+            assertTrue(reader.endOfLine());
+            reader.nextLine();
+            assertEquals(3, reader.nextInt());
+            assertThrows(NumberFormatException.class, reader::nextInt);
+            reader.nextLine();
+            assertThrows(NumberFormatException.class, reader::nextInt);
+            reader.nextLine();
+            assertFalse(reader.hasNextLine());
+        }
+    }
+}